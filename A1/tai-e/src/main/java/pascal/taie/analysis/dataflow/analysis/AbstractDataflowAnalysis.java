@@ -39,7 +39,14 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
 
     protected AbstractDataflowAnalysis(AnalysisConfig config) {
         super(config);
-        solver = Solver.makeSolver(this);
+        solver = makeSolver(this);
+    }
+
+    /**
+     * @return a new solver for given analysis.
+     */
+    protected Solver<Node, Fact> makeSolver(DataflowAnalysis<Node, Fact> analysis) {
+        return Solver.makeSolver(analysis);
     }
 
     @Override
@@ -22,28 +22,40 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.IndexedSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.LValue;
 import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
- * Implementation of classic live variable analysis.
+ * Implementation of classic live variable analysis, in which
+ * each statement generates the variables it uses, and kills
+ * the variable it defines.
  */
 //fact是一个setfact<var>
-public class LiveVariableAnalysis extends
-        AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
+public class LiveVariableAnalysis extends GenKillAnalysis<Var> {
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether to represent the facts as bit vectors indexed by
+     * {@link Var#getIndex()} (i.e., {@link IndexedSetFact}).
+     */
+    private final boolean bitVector;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        bitVector = getOptions().getBooleanOrDefault("bit-vector", false);
     }
 
     @Override
@@ -55,8 +67,7 @@ public class LiveVariableAnalysis extends
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
         // IN[EXIT] = null;
-        SetFact<Var> fact = new SetFact<>();
-        return fact;
+        return newFact(cfg.getIR());
     }
 
     @Override
@@ -67,6 +78,17 @@ public class LiveVariableAnalysis extends
         return fact;
     }
 
+    @Override
+    public SetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+        return newFact(cfg.getIR());
+    }
+
+    private SetFact<Var> newFact(IR ir) {
+        return bitVector ?
+                new IndexedSetFact<>(ir.getVars().size(), ir::getVar) :
+                new SetFact<>();
+    }
+
     @Override
     public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
         // TODO - finish me
@@ -74,28 +96,20 @@ public class LiveVariableAnalysis extends
     }
 
     @Override
-    public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // TODO - finish me
-        SetFact<Var> tmp = new SetFact<>();
-        tmp.union(out);
-        if (stmt.getDef().isPresent()) {
-            // 确保 Optional 有值
-            if (stmt.getDef().get() instanceof Var) {
-                tmp.remove((Var) stmt.getDef().get());
+    protected Collection<Var> getGen(Stmt stmt) {
+        List<Var> gen = new ArrayList<>();
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var var) {
+                gen.add(var);
             }
         }
+        return gen;
+    }
 
-        for(RValue v : stmt.getUses()) {
-            if (v instanceof Var)  tmp.add((Var)v);
-        }
-
-        //新一轮产生的In和上一轮的in相同
-        //this judge really save time for the structure setfact realize function set by clear first and then union
-        if(tmp.equals(in)) return false;
-
-        else {
-            in.set(tmp);
-            return true;
-        }
+    @Override
+    protected Collection<Var> getKill(Stmt stmt) {
+        Optional<LValue> def = stmt.getDef();
+        return def.isPresent() && def.get() instanceof Var var ?
+                List.of(var) : List.of();
     }
 }
@@ -0,0 +1,271 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.CollectionUtils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Represents set-like data-flow facts whose elements are densely indexed,
+ * e.g., {@link pascal.taie.ir.exp.Var}s in the same {@link pascal.taie.ir.IR}.
+ * The elements are stored in a bit vector, so that union, intersection
+ * and comparison of two such facts are performed word by word.
+ *
+ * @param <E> type of elements
+ */
+public class IndexedSetFact<E extends Indexable> extends SetFact<E> {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    /**
+     * Maps indexes back to the elements.
+     */
+    private final IntFunction<E> elements;
+
+    private long[] words;
+
+    /**
+     * @param capacity number of indexes expected to be stored in this fact
+     * @param elements function that maps indexes back to the elements
+     */
+    public IndexedSetFact(int capacity, IntFunction<E> elements) {
+        // the elements are kept in the words instead of a backing set
+        super((Void) null);
+        this.elements = elements;
+        this.words = new long[wordIndex(capacity + (1 << ADDRESS_BITS_PER_WORD) - 1)];
+    }
+
+    private IndexedSetFact(IndexedSetFact<E> other) {
+        super((Void) null);
+        this.elements = other.elements;
+        this.words = other.words.clone();
+    }
+
+    static int wordIndex(int index) {
+        return index >> ADDRESS_BITS_PER_WORD;
+    }
+
+    private void ensureCapacity(int wordsRequired) {
+        if (words.length < wordsRequired) {
+            words = Arrays.copyOf(words, Math.max(2 * words.length, wordsRequired));
+        }
+    }
+
+    @Override
+    public boolean contains(E e) {
+        int wordIndex = wordIndex(e.getIndex());
+        return wordIndex < words.length &&
+                (words[wordIndex] & (1L << e.getIndex())) != 0;
+    }
+
+    @Override
+    public boolean add(E e) {
+        int wordIndex = wordIndex(e.getIndex());
+        ensureCapacity(wordIndex + 1);
+        long oldWord = words[wordIndex];
+        words[wordIndex] |= 1L << e.getIndex();
+        return words[wordIndex] != oldWord;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        int wordIndex = wordIndex(e.getIndex());
+        if (wordIndex >= words.length) {
+            return false;
+        }
+        long oldWord = words[wordIndex];
+        words[wordIndex] &= ~(1L << e.getIndex());
+        return words[wordIndex] != oldWord;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<E> filter) {
+        boolean changed = false;
+        for (int i = 0; i < words.length; ++i) {
+            long word = words[i];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (filter.test(elements.apply((i << ADDRESS_BITS_PER_WORD) + bit))) {
+                    words[i] &= ~(1L << bit);
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean union(SetFact<E> other) {
+        if (other instanceof IndexedSetFact<E> that) {
+            ensureCapacity(that.words.length);
+            boolean changed = false;
+            for (int i = 0; i < that.words.length; ++i) {
+                long oldWord = words[i];
+                words[i] |= that.words[i];
+                changed |= words[i] != oldWord;
+            }
+            return changed;
+        } else {
+            boolean changed = false;
+            for (Iterator<E> it = other.stream().iterator(); it.hasNext(); ) {
+                changed |= add(it.next());
+            }
+            return changed;
+        }
+    }
+
+    @Override
+    public boolean intersect(SetFact<E> other) {
+        if (other instanceof IndexedSetFact<E> that) {
+            boolean changed = false;
+            for (int i = 0; i < words.length; ++i) {
+                long oldWord = words[i];
+                words[i] &= i < that.words.length ? that.words[i] : 0L;
+                changed |= words[i] != oldWord;
+            }
+            return changed;
+        } else {
+            return removeIf(e -> !other.contains(e));
+        }
+    }
+
+    @Override
+    public void set(SetFact<E> other) {
+        if (other instanceof IndexedSetFact<E> that) {
+            if (words.length == that.words.length) {
+                System.arraycopy(that.words, 0, words, 0, words.length);
+            } else {
+                words = that.words.clone();
+            }
+        } else {
+            clear();
+            union(other);
+        }
+    }
+
+    /**
+     * Sets this fact to {@code gen ∪ (base − kill)} word by word.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    boolean setGenKill(IndexedSetFact<E> base, GenKill<E> genKill) {
+        int[] wordIndexes = genKill.wordIndexes;
+        ensureCapacity(base.words.length);
+        if (wordIndexes.length > 0) {
+            ensureCapacity(wordIndexes[wordIndexes.length - 1] + 1);
+        }
+        boolean changed = false;
+        int k = 0;
+        for (int i = 0; i < words.length; ++i) {
+            long word = i < base.words.length ? base.words[i] : 0L;
+            if (k < wordIndexes.length && wordIndexes[k] == i) {
+                word = (word & ~genKill.killMasks[k]) | genKill.genMasks[k];
+                ++k;
+            }
+            changed |= word != words[i];
+            words[i] = word;
+        }
+        return changed;
+    }
+
+    @Override
+    public IndexedSetFact<E> copy() {
+        return new IndexedSetFact<>(this);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Stream<E> stream() {
+        return BitSet.valueOf(words).stream().mapToObj(elements);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof IndexedSetFact<?> that) {
+            long[] shorter = words.length <= that.words.length ? words : that.words;
+            long[] longer = shorter == words ? that.words : words;
+            for (int i = 0; i < shorter.length; ++i) {
+                if (shorter[i] != longer[i]) {
+                    return false;
+                }
+            }
+            for (int i = shorter.length; i < longer.length; ++i) {
+                if (longer[i] != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (!(o instanceof SetFact<?> that)) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        SetFact<E> other = (SetFact<E>) that;
+        return size() == other.size() && other.stream().allMatch(this::contains);
+    }
+
+    @Override
+    public int hashCode() {
+        // consistent with the hash code of the equivalent SetFact
+        return stream().mapToInt(Object::hashCode).sum();
+    }
+
+    @Override
+    public String toString() {
+        return CollectionUtils.toString(stream().toList());
+    }
+}
@@ -27,6 +27,7 @@ import pascal.taie.util.collection.Sets;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -38,12 +39,30 @@ import java.util.stream.Stream;
  */
 public class SetFact<E> {
 
+    /**
+     * The backing set of this fact, or {@code null} if the elements
+     * are kept by a subclass in its own way, e.g., {@link IndexedSetFact}.
+     * In such case, the subclass overrides all methods which access
+     * this field, and the facts of different kinds are combined
+     * via {@link #stream()} and {@link #contains(Object)}.
+     */
     protected final Set<E> set;
 
     public SetFact(Collection<E> c) {
         set = Sets.newHybridSet(c);
     }
 
+    /**
+     * Constructs a fact without backing set, for the subclasses which
+     * keep the elements themselves, see {@link #set}.
+     *
+     * @param noBackingSet unused, it only distinguishes this constructor
+     *                     from {@link #SetFact(Collection)}.
+     */
+    protected SetFact(Void noBackingSet) {
+        this.set = null;
+    }
+
     public SetFact() {
         this(Collections.emptySet());
     }
@@ -89,7 +108,14 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean union(SetFact<E> other) {
-        return set.addAll(other.set);
+        if (other.set != null) {
+            return set.addAll(other.set);
+        }
+        boolean changed = false;
+        for (Iterator<E> it = other.stream().iterator(); it.hasNext(); ) {
+            changed |= set.add(it.next());
+        }
+        return changed;
     }
 
     /**
@@ -107,7 +133,10 @@ public class SetFact<E> {
      * @return true if this fact changed as a result of the call, otherwise false.
      */
     public boolean intersect(SetFact<E> other) {
-        return set.retainAll(other.set);
+        if (other.set != null) {
+            return set.retainAll(other.set);
+        }
+        return set.removeIf(e -> !other.contains(e));
     }
 
     /**
@@ -161,6 +190,10 @@ public class SetFact<E> {
         if (!(o instanceof SetFact<?> that)) {
             return false;
         }
+        if (that.set == null) {
+            // let the other kind of fact compare the elements
+            return that.equals(this);
+        }
         return set.equals(that.set);
     }
 
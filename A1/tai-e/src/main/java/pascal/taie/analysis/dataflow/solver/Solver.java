@@ -24,6 +24,7 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.StmtDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.ir.stmt.Stmt;
 
@@ -58,18 +59,33 @@ public abstract class Solver<Node, Fact> {
      * @return the analysis result
      */
     public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
+        long start = System.nanoTime();
         DataflowResult<Node, Fact> result = initialize(cfg);
         doSolve(cfg, result);
+        result.getStats().addWallTime(System.nanoTime() - start);
+        countFactSizes(cfg, result);
         return result;
     }
 
+    /**
+     * Counts the sizes of the resulting facts in the statistics of
+     * given result, i.e., the out (in) facts for forward (backward) analyses.
+     */
+    private void countFactSizes(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        SolverStats stats = result.getStats();
+        for (Node node : cfg) {
+            stats.countFactSize(analysis.isForward() ?
+                    result.getOutFact(node) : result.getInFact(node));
+        }
+    }
+
     /**
      * Creates and initializes a new data-flow result for given CFG.
      *
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -78,6 +94,19 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * @return a new empty data-flow result for given CFG. The facts of
+     * statement CFGs are stored in arrays indexed by the statements.
+     */
+    @SuppressWarnings("unchecked")
+    private DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt) {
+            return (DataflowResult<Node, Fact>)
+                    new StmtDataflowResult<Fact>(cfg.getIR());
+        }
+        return new DataflowResult<>();
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         throw new UnsupportedOperationException();
     }
@@ -90,9 +119,9 @@ public abstract class Solver<Node, Fact> {
         for (Node node : cfg) {
             //equals是数值比较，所以应该判定是不是exit，而不是比较数值！
             if(!cfg.isExit(node)) {
-                result.setInFact(node, analysis.newInitialFact());
+                result.setInFact(node, analysis.newInitialFact(cfg));
                 //没有为outb新生成集合，需要在这里作初始化
-                result.setOutFact(node, analysis.newInitialFact());
+                result.setOutFact(node, analysis.newInitialFact(cfg));
             }
         }
     }
@@ -61,4 +61,24 @@ public class LiveVarTest {
     public void Reference() {
         testLV("Reference");
     }
+
+    void testLVWithBitVector(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/livevar",
+                LiveVariableAnalysis.ID, "strongly:false;bit-vector:true");
+    }
+
+    @Test
+    public void testBranchLoopWithBitVector() {
+        testLVWithBitVector("BranchLoop");
+    }
+
+    @Test
+    public void testFibonacciWithBitVector() {
+        testLVWithBitVector("Fibonacci");
+    }
+
+    @Test
+    public void testReferenceWithBitVector() {
+        testLVWithBitVector("Reference");
+    }
 }
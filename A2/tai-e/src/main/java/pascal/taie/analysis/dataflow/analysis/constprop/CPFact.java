@@ -23,6 +23,7 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.PersistentMap;
 import pascal.taie.ir.exp.Var;
 
 import java.util.Collections;
@@ -48,6 +49,22 @@ public class CPFact extends MapFact<Var, Value> {
         super(map);
     }
 
+    /**
+     * @param map the backing persistent map, or {@code null} for
+     *            subclasses which keep the values themselves.
+     */
+    protected CPFact(PersistentMap<Var, Value> map) {
+        super(map);
+    }
+
+    /**
+     * @return a new empty CPFact backed by a {@link PersistentMap},
+     * whose copies share unchanged mappings with it.
+     */
+    public static CPFact newPersistentFact() {
+        return new CPFact(new PersistentMap<>());
+    }
+
     /**
      * @return the value of given variable in this fact,
      * or UNDEF the variable is absent in this fact.
@@ -57,6 +74,36 @@ public class CPFact extends MapFact<Var, Value> {
         return map.getOrDefault(key, Value.getUndef());
     }
 
+    /**
+     * @return true if given variable is a constant in this fact.
+     */
+    public boolean isConstant(Var var) {
+        return get(var).isConstant();
+    }
+
+    /**
+     * @return true if given variable is NAC in this fact.
+     */
+    public boolean isNAC(Var var) {
+        return get(var).isNAC();
+    }
+
+    /**
+     * @return true if given variable is UNDEF in this fact.
+     */
+    public boolean isUndef(Var var) {
+        return get(var).isUndef();
+    }
+
+    /**
+     * @return the constant of given variable in this fact.
+     * @throws pascal.taie.util.AnalysisException if the variable
+     *                                            is not a constant
+     */
+    public int getConstant(Var var) {
+        return get(var).getConstant();
+    }
+
     @Override
     public boolean update(Var key, Value value) {
         if (value.isUndef()) {
@@ -71,6 +118,8 @@ public class CPFact extends MapFact<Var, Value> {
 
     @Override
     public CPFact copy() {
-        return new CPFact(this.map);
+        return map instanceof PersistentMap<Var, Value> persistentMap ?
+                new CPFact(persistentMap.copy()) :
+                new CPFact(this.map);
     }
 }
@@ -23,8 +23,11 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.DefinitionStmt;
@@ -44,8 +47,47 @@ public class ConstantPropagation extends
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether to propagate values along def-use chains
+     * by {@link SparseCPSolver} instead of the data-flow solver.
+     */
+    private final boolean sparse;
+
+    /**
+     * Whether to back the facts by {@link pascal.taie.analysis.dataflow.fact.PersistentMap}s,
+     * so that copying a fact shares the mappings instead of copying them.
+     */
+    private final boolean persistentFact;
+
+    /**
+     * Whether to encode the facts in primitive arrays, see {@link PrimitiveCPFact}.
+     */
+    private final boolean primitiveFact;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        sparse = getOptions().getBooleanOrDefault("sparse", false);
+        persistentFact = getOptions().getBooleanOrDefault("persistent-fact", false);
+        primitiveFact = getOptions().getBooleanOrDefault("primitive-fact", false);
+        if (persistentFact && primitiveFact) {
+            throw new ConfigException("persistent-fact and primitive-fact" +
+                    " cannot be enabled together");
+        }
+        if (sparse && (persistentFact || primitiveFact)) {
+            // SparseCPSolver keeps values per definition, and builds
+            // the facts of the result on demand as plain CPFacts
+            throw new ConfigException("sparse cannot be enabled together" +
+                    " with persistent-fact or primitive-fact");
+        }
+    }
+
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(IR ir) {
+        if (sparse) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseCPSolver(this, cfg).solve();
+        }
+        return super.analyze(ir);
     }
 
     @Override
@@ -57,7 +99,7 @@ public class ConstantPropagation extends
     //extract all the var from cfg and add them to boundary fact with value as udf(bot)
     //set params and this as NAC
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
-        CPFact boundary = new CPFact();
+        CPFact boundary = newFact();
 
         for (Var var : cfg.getIR().getVars()) {
             if (canHoldInt(var)) boundary.update(var, Value.getUndef());
@@ -79,13 +121,28 @@ public class ConstantPropagation extends
     // in and out for each node is initialized as undefined(bot)
     public CPFact newInitialFact() {
 
-        return new CPFact();
+        return newFact();
         // TODO - finish me
     }
 
+    /**
+     * @return a new empty fact of the kind selected by the options.
+     */
+    private CPFact newFact() {
+        if (primitiveFact) {
+            return new PrimitiveCPFact();
+        }
+        return persistentFact ? CPFact.newPersistentFact() : new CPFact();
+    }
+
     @Override
     //bring fact into target
     public void meetInto(CPFact fact, CPFact target) {
+        if (fact instanceof PrimitiveCPFact primitiveSource &&
+                target instanceof PrimitiveCPFact primitiveTarget) {
+            primitiveTarget.meet(primitiveSource);
+            return;
+        }
         for (Var var : fact.keySet()) {
             Value source = fact.get(var);
             target.update(var,meetValue(source,target.get(var)));
@@ -161,33 +218,35 @@ public class ConstantPropagation extends
             return in.get((Var) exp);
         }
         else if (exp instanceof BinaryExp binExp) {
-            Value v1 = in.get(binExp.getOperand1());
-            Value v2 = in.get(binExp.getOperand2());
-            if (v1.isNAC() || v2.isNAC()) {
+            Var var1 = binExp.getOperand1();
+            Var var2 = binExp.getOperand2();
+            if (in.isNAC(var1) || in.isNAC(var2)) {
                 if (binExp instanceof ArithmeticExp) {
                     ArithmeticExp.Op op = (ArithmeticExp.Op) binExp.getOperator();
                     if (op == DIV || op == REM) {
                         // division by zero may happen
-                        if (v2.isConstant() && v2.getConstant() == 0) {
+                        if (in.isConstant(var2) && in.getConstant(var2) == 0) {
                             return Value.getUndef();
                         }
                     }
                 }
                 return Value.getNAC();
             }
-            else if (v1.isUndef() || v2.isUndef()) return Value.getUndef();
+            else if (in.isUndef(var1) || in.isUndef(var2)) return Value.getUndef();
             else {
+                int a = in.getConstant(var1);
+                int b = in.getConstant(var2);
                 if (binExp instanceof ArithmeticExp) {
-                    return arithmeticEvaluate(binExp.getOperator(), v1, v2);
+                    return arithmeticEvaluate(binExp.getOperator(), a, b);
                 }
                 else if (binExp instanceof BitwiseExp) {
-                    return bitwiseEvaluate(binExp.getOperator(), v1, v2);
+                    return bitwiseEvaluate(binExp.getOperator(), a, b);
                 }
                 else if (binExp instanceof ShiftExp) {
-                    return shiftEvaluate(binExp.getOperator(), v1, v2);
+                    return shiftEvaluate(binExp.getOperator(), a, b);
                 }
                 else if (binExp instanceof ConditionExp) {
-                    return conditionEvaluate(binExp.getOperator(), v1, v2);
+                    return conditionEvaluate(binExp.getOperator(), a, b);
                 }
             }
         }
@@ -198,10 +257,8 @@ public class ConstantPropagation extends
         return null;
     }
 
-    private static Value conditionEvaluate(BinaryExp.Op operator, Value v1, Value v2) {
+    private static Value conditionEvaluate(BinaryExp.Op operator, int a, int b) {
         ConditionExp.Op op = (ConditionExp.Op) operator;
-        int a = v1.getConstant();
-        int b = v2.getConstant();
         return switch (op) {
             case EQ -> Value.makeConstant(a == b ? 1 : 0);
             case NE -> Value.makeConstant(a != b ? 1 : 0);
@@ -213,10 +270,8 @@ public class ConstantPropagation extends
 
     }
 
-    private static Value shiftEvaluate(BinaryExp.Op operator, Value v1, Value v2) {
+    private static Value shiftEvaluate(BinaryExp.Op operator, int a, int b) {
         ShiftExp.Op op = (ShiftExp.Op) operator;
-        int a = v1.getConstant();
-        int b = v2.getConstant();
         return switch (op) {
             case SHL -> Value.makeConstant(a << b);
             case SHR -> Value.makeConstant(a >> b);
@@ -224,10 +279,8 @@ public class ConstantPropagation extends
         };
     }
 
-    private static Value bitwiseEvaluate(BinaryExp.Op operator, Value v1, Value v2) {
+    private static Value bitwiseEvaluate(BinaryExp.Op operator, int a, int b) {
         BitwiseExp.Op op = (BitwiseExp.Op) operator;
-        int a = v1.getConstant();
-        int b = v2.getConstant();
         return switch (op) {
             case OR -> Value.makeConstant(a | b);
             case AND -> Value.makeConstant(a & b);
@@ -235,10 +288,8 @@ public class ConstantPropagation extends
         };
     }
 
-    private static Value arithmeticEvaluate(BinaryExp.Op operator, Value v1, Value v2) {
+    private static Value arithmeticEvaluate(BinaryExp.Op operator, int a, int b) {
         ArithmeticExp.Op op = (ArithmeticExp.Op) operator;
-        int a = v1.getConstant();
-        int b = v2.getConstant();
         return switch (op) {
             case ADD -> Value.makeConstant(a + b);
             case SUB -> Value.makeConstant(a - b);
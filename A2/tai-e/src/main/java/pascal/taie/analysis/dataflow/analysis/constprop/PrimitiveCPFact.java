@@ -0,0 +1,314 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.PersistentMap;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link CPFact} which encodes the lattice values in primitive arrays
+ * indexed by {@link Var#getIndex()}, i.e., a byte array of the kinds
+ * of the values and an int array of the constants. Storing, copying
+ * and meeting the values of such facts never create {@link Value}s.
+ * <p>
+ * As the indexes of variables are unique only within the IR of a method,
+ * all variables in a fact must belong to the same method. Such facts
+ * do not allocate the map of {@link MapFact}, and they are combined
+ * with the map-based facts via {@link #entries()}.
+ */
+public class PrimitiveCPFact extends CPFact {
+
+    // kinds of lattice values, UNDEF must be 0 as the default of arrays
+    private static final byte UNDEF = 0;
+
+    private static final byte CONSTANT = 1;
+
+    private static final byte NAC = 2;
+
+    /**
+     * IR of the variables in this fact, which maps indexes back to variables.
+     */
+    private IR ir;
+
+    private byte[] kinds;
+
+    private int[] constants;
+
+    public PrimitiveCPFact() {
+        this(null, new byte[0], new int[0]);
+    }
+
+    private PrimitiveCPFact(IR ir, byte[] kinds, int[] constants) {
+        // the values are kept in the arrays instead of a backing map
+        super((PersistentMap<Var, Value>) null);
+        this.ir = ir;
+        this.kinds = kinds;
+        this.constants = constants;
+    }
+
+    private byte kindOf(int index) {
+        return index < kinds.length ? kinds[index] : UNDEF;
+    }
+
+    private Value valueOf(int index) {
+        return switch (kindOf(index)) {
+            case CONSTANT -> Value.makeConstant(constants[index]);
+            case NAC -> Value.getNAC();
+            default -> Value.getUndef();
+        };
+    }
+
+    /**
+     * Ensures that the arrays can hold the value at given index.
+     */
+    private void ensureCapacity(int index) {
+        if (index >= kinds.length) {
+            int length = Math.max(index + 1, ir.getVars().size());
+            kinds = Arrays.copyOf(kinds, length);
+            constants = Arrays.copyOf(constants, length);
+        }
+    }
+
+    /**
+     * Sets the value at given index, whose kind is not UNDEF.
+     *
+     * @return true if this fact changed as a result of the call.
+     */
+    private boolean set(int index, byte kind, int constant) {
+        ensureCapacity(index);
+        if (kind == CONSTANT) {
+            if (kinds[index] == CONSTANT && constants[index] == constant) {
+                return false;
+            }
+            kinds[index] = CONSTANT;
+            constants[index] = constant;
+            return true;
+        } else {
+            if (kinds[index] == kind) {
+                return false;
+            }
+            kinds[index] = kind;
+            return true;
+        }
+    }
+
+    @Override
+    public Value get(Var key) {
+        return valueOf(key.getIndex());
+    }
+
+    @Override
+    public boolean isConstant(Var var) {
+        return kindOf(var.getIndex()) == CONSTANT;
+    }
+
+    @Override
+    public boolean isNAC(Var var) {
+        return kindOf(var.getIndex()) == NAC;
+    }
+
+    @Override
+    public boolean isUndef(Var var) {
+        return kindOf(var.getIndex()) == UNDEF;
+    }
+
+    @Override
+    public int getConstant(Var var) {
+        if (!isConstant(var)) {
+            throw new AnalysisException(var + " is not a constant");
+        }
+        return constants[var.getIndex()];
+    }
+
+    @Override
+    public boolean update(Var key, Value value) {
+        if (value.isUndef()) {
+            return remove(key) != null;
+        }
+        if (ir == null) {
+            ir = key.getMethod().getIR();
+        }
+        return value.isConstant() ?
+                set(key.getIndex(), CONSTANT, value.getConstant()) :
+                set(key.getIndex(), NAC, 0);
+    }
+
+    @Override
+    public Value remove(Var key) {
+        int index = key.getIndex();
+        if (kindOf(index) == UNDEF) {
+            return null;
+        }
+        Value value = valueOf(index);
+        kinds[index] = UNDEF;
+        return value;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (!(fact instanceof PrimitiveCPFact other)) {
+            return super.copyFrom(fact);
+        }
+        if (ir == null) {
+            ir = other.ir;
+        }
+        boolean changed = false;
+        for (int i = 0; i < other.kinds.length; ++i) {
+            byte kind = other.kinds[i];
+            if (kind != UNDEF) {
+                changed |= set(i, kind, other.constants[i]);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Meets the values of given fact into this fact.
+     *
+     * @return true if this fact changed as a result of the call.
+     */
+    public boolean meet(PrimitiveCPFact fact) {
+        if (ir == null) {
+            ir = fact.ir;
+        }
+        boolean changed = false;
+        for (int i = 0; i < fact.kinds.length; ++i) {
+            byte kind = fact.kinds[i];
+            if (kind == UNDEF || kindOf(i) == NAC) {
+                continue;
+            }
+            if (kind == NAC || (kindOf(i) == CONSTANT &&
+                    constants[i] != fact.constants[i])) {
+                changed |= set(i, NAC, 0);
+            } else {
+                changed |= set(i, CONSTANT, fact.constants[i]);
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public PrimitiveCPFact copy() {
+        return new PrimitiveCPFact(ir, kinds.clone(), constants.clone());
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(kinds, UNDEF);
+    }
+
+    private IntStream indexes() {
+        return IntStream.range(0, kinds.length)
+                .filter(i -> kinds[i] != UNDEF);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (byte kind : kinds) {
+            if (kind != UNDEF) {
+                ++size;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Var> keySet() {
+        return indexes()
+                .mapToObj(ir::getVar)
+                .collect(Collectors.toCollection(Sets::newHybridSet));
+    }
+
+    @Override
+    public Stream<Map.Entry<Var, Value>> entries() {
+        return indexes().mapToObj(i -> Map.entry(ir.getVar(i), valueOf(i)));
+    }
+
+    @Override
+    public void forEach(BiConsumer<Var, Value> action) {
+        for (int i = 0; i < kinds.length; ++i) {
+            if (kinds[i] != UNDEF) {
+                action.accept(ir.getVar(i), valueOf(i));
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PrimitiveCPFact that)) {
+            // compare with the map-based facts by the mappings
+            return o instanceof CPFact fact && size() == fact.size() &&
+                    fact.entries().allMatch(e ->
+                            e.getValue().equals(get(e.getKey())));
+        }
+        int length = Math.max(kinds.length, that.kinds.length);
+        for (int i = 0; i < length; ++i) {
+            byte kind = kindOf(i);
+            if (kind != that.kindOf(i) ||
+                    (kind == CONSTANT && constants[i] != that.constants[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // consistent with the hash codes of the map-based facts
+        int hash = 0;
+        for (int i = 0; i < kinds.length; ++i) {
+            if (kinds[i] != UNDEF) {
+                hash += ir.getVar(i).hashCode() ^ (kinds[i] == CONSTANT ?
+                        constants[i] :
+                        Value.getNAC().hashCode());
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "{" + entries()
+                .sorted(Comparator.comparing(e -> e.getKey().toString()))
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining(", ")) + "}";
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Numbers the nodes of a CFG in reverse postorder of a depth-first
+ * traversal from the entry. Nodes that are unreachable from the entry
+ * are traversed after the reachable ones, so that every node is numbered.
+ * <p>
+ * Reverse postorder visits a node after all its predecessors (ignoring
+ * back edges), which is the preferred order for forward analyses;
+ * postorder (i.e., numbers counted from the end) is the preferred
+ * order for backward analyses.
+ *
+ * @param <Node> type of CFG nodes
+ */
+class NodeOrder<Node> {
+
+    /**
+     * Key for caching the order in the {@link IR} of the CFG.
+     */
+    private static final String KEY = NodeOrder.class.getName();
+
+    private final CFG<Node> cfg;
+
+    /**
+     * Nodes in reverse postorder.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * Map from node to its index in {@link #nodes}.
+     */
+    private final Map<Node, Integer> numbers;
+
+    private NodeOrder(CFG<Node> cfg) {
+        this.cfg = cfg;
+        this.nodes = computeReversePostorder(cfg);
+        this.numbers = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            numbers.put(nodes.get(i), i);
+        }
+    }
+
+    /**
+     * @return the node order of given CFG. The order is computed once
+     * and then cached in the IR of the CFG.
+     */
+    static <Node> NodeOrder<Node> get(CFG<Node> cfg) {
+        IR ir = cfg.getIR();
+        NodeOrder<Node> order = ir.getResult(KEY);
+        if (order == null || order.cfg != cfg) {
+            order = new NodeOrder<>(cfg);
+            ir.storeResult(KEY, order);
+        }
+        return order;
+    }
+
+    /**
+     * @return number of nodes in the order.
+     */
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return the reverse postorder number of given node.
+     */
+    int getNumber(Node node) {
+        return numbers.get(node);
+    }
+
+    /**
+     * @return the node whose reverse postorder number is given number.
+     */
+    Node getNode(int number) {
+        return nodes.get(number);
+    }
+
+    private static <Node> List<Node> computeReversePostorder(CFG<Node> cfg) {
+        List<Node> postorder = new ArrayList<>(cfg.getNumberOfNodes());
+        Set<Node> visited = Sets.newSet(cfg.getNumberOfNodes());
+        visit(cfg, cfg.getEntry(), visited, postorder);
+        for (Node node : cfg) {
+            if (!visited.contains(node)) {
+                visit(cfg, node, visited, postorder);
+            }
+        }
+        Collections.reverse(postorder);
+        return postorder;
+    }
+
+    /**
+     * Iterative depth-first traversal which appends the nodes reachable
+     * from {@code root} to {@code postorder} in postorder.
+     */
+    private static <Node> void visit(CFG<Node> cfg, Node root,
+                                     Set<Node> visited, List<Node> postorder) {
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        Deque<Iterator<Node>> succStack = new ArrayDeque<>();
+        visited.add(root);
+        nodeStack.push(root);
+        succStack.push(cfg.getSuccsOf(root).iterator());
+        while (!nodeStack.isEmpty()) {
+            Iterator<Node> succs = succStack.peek();
+            if (succs.hasNext()) {
+                Node succ = succs.next();
+                if (visited.add(succ)) {
+                    nodeStack.push(succ);
+                    succStack.push(cfg.getSuccsOf(succ).iterator());
+                }
+            } else {
+                postorder.add(nodeStack.pop());
+                succStack.pop();
+            }
+        }
+    }
+}
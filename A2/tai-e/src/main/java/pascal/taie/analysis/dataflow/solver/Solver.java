@@ -25,7 +25,10 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.StmtDataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.Stmt;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -50,6 +53,28 @@ public abstract class Solver<Node, Fact> {
         return new WorkListSolver<>(analysis);
     }
 
+    /**
+     * Static factory method to create a new solver for given analysis,
+     * which uses the specified work-list mode.
+     *
+     * @param workList the work-list mode, which can be {@code "fifo"}
+     *                 (also used when {@code workList} is {@code null})
+     *                 or {@code "rpo"}, i.e., visiting nodes in reverse
+     *                 postorder (postorder) for forward (backward) analyses
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, String workList) {
+        if (workList == null) {
+            return makeSolver(analysis);
+        }
+        return switch (workList) {
+            case "fifo" -> new WorkListSolver<>(analysis);
+            case "rpo" -> new WorkListSolver<>(analysis, true);
+            default -> throw new ConfigException(
+                    "Unknown work-list mode: " + workList);
+        };
+    }
+
     /**
      * Starts this solver on the given CFG.
      *
@@ -57,18 +82,33 @@ public abstract class Solver<Node, Fact> {
      * @return the analysis result
      */
     public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
+        long start = System.nanoTime();
         DataflowResult<Node, Fact> result = initialize(cfg);
         doSolve(cfg, result);
+        result.getStats().addWallTime(System.nanoTime() - start);
+        countFactSizes(cfg, result);
         return result;
     }
 
+    /**
+     * Counts the sizes of the resulting facts in the statistics of
+     * given result, i.e., the out (in) facts for forward (backward) analyses.
+     */
+    private void countFactSizes(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        SolverStats stats = result.getStats();
+        for (Node node : cfg) {
+            stats.countFactSize(analysis.isForward() ?
+                    result.getOutFact(node) : result.getInFact(node));
+        }
+    }
+
     /**
      * Creates and initializes a new data-flow result for given CFG.
      *
      * @return the initialized data-flow result
      */
     private DataflowResult<Node, Fact> initialize(CFG<Node> cfg) {
-        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        DataflowResult<Node, Fact> result = newResult(cfg);
         if (analysis.isForward()) {
             initializeForward(cfg, result);
         } else {
@@ -77,6 +117,19 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * @return a new empty data-flow result for given CFG. The facts of
+     * statement CFGs are stored in arrays indexed by the statements.
+     */
+    @SuppressWarnings("unchecked")
+    private DataflowResult<Node, Fact> newResult(CFG<Node> cfg) {
+        if (cfg.getEntry() instanceof Stmt) {
+            return (DataflowResult<Node, Fact>)
+                    new StmtDataflowResult<Fact>(cfg.getIR());
+        }
+        return new DataflowResult<>();
+    }
+
     protected void initializeForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         //这里把所有in out的引用设置成一个了。。。。
         for (Node node : cfg.getNodes()) {
@@ -29,19 +29,47 @@ import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 
 import java.util.LinkedList;
-import java.util.List;
+import java.util.Queue;
 
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
+    /**
+     * Whether to poll the nodes by {@link NodeOrder} (and keep each node
+     * at most once in the work-list), or in first-in-first-out order.
+     */
+    private final boolean ordered;
+
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+        this(analysis, false);
+    }
+
+    WorkListSolver(DataflowAnalysis<Node, Fact> analysis, boolean ordered) {
         super(analysis);
+        this.ordered = ordered;
+    }
+
+    /**
+     * @return a new work-list which contains all nodes of given CFG.
+     */
+    private Queue<Node> newWorkList(CFG<Node> cfg) {
+        if (ordered) {
+            Queue<Node> workList = new OrderedWorkList<>(
+                    NodeOrder.get(cfg), analysis.isForward());
+            workList.addAll(cfg.getNodes());
+            return workList;
+        } else {
+            return new LinkedList<>(cfg.getNodes());
+        }
     }
 
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
-        List<Node> workList = new LinkedList<>(cfg.getNodes());
+        SolverStats stats = result.getStats();
+        Queue<Node> workList = newWorkList(cfg);
+        stats.updateWorkListSize(workList.size());
         while (!workList.isEmpty()) {
-            Node node = workList.remove(0);
+            Node node = workList.poll();
+            stats.countNodeVisit();
             Fact out = result.getOutFact(node);
             Fact new_in = analysis.newInitialFact();
 
@@ -49,13 +77,16 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
             for (Node pred : cfg.getPredsOf(node)) {
                 Fact pred_out = result.getOutFact(pred);
                 //取并是不包括上一次迭代的in值的
+                stats.countMeet();
                 analysis.meetInto(pred_out,new_in);
             }
             result.setInFact(node, new_in);
 
+            stats.countTransfer();
             if (analysis.transferNode(node, new_in, out)) {
                 result.setOutFact(node, out);
                 workList.addAll(cfg.getSuccsOf(node));
+                stats.updateWorkListSize(workList.size());
             }
         }
         // TODO - finish me
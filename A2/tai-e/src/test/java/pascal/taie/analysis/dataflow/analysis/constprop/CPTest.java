@@ -71,4 +71,34 @@ public class CPTest {
     public void testMyCase() {
         testCP("MyCase");
     }
+
+    @Test
+    public void testBranchConstantWithRPOWorkList() {
+        Tests.test("BranchConstant", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;worklist:rpo");
+    }
+
+    @Test
+    public void testBranchConstantSparse() {
+        Tests.test("BranchConstant", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;sparse:true");
+    }
+
+    @Test
+    public void testSimpleBranchSparse() {
+        Tests.test("SimpleBranch", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;sparse:true");
+    }
+
+    @Test
+    public void testBranchConstantPersistentFact() {
+        Tests.test("BranchConstant", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;persistent-fact:true");
+    }
+
+    @Test
+    public void testBranchConstantPrimitiveFact() {
+        Tests.test("BranchConstant", "src/test/resources/dataflow/constprop/",
+                ConstantPropagation.ID, "edge-refine:false;primitive-fact:true");
+    }
 }
@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("application")
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 repositories {
@@ -19,12 +20,31 @@ application {
 
 tasks.compileJava { options.encoding = "UTF-8" }
 tasks.compileTestJava { options.encoding = "UTF-8" }
+tasks.named<JavaCompile>("compileJmhJava") { options.encoding = "UTF-8" }
 
 tasks.test {
     useJUnit()
     maxHeapSize = "4G"
 }
 
+// Benchmarks of the data-flow solvers, run by `gradlew jmh`.
+// The results (throughput and allocation rate) are written to
+// build/reports/jmh/results.json.
+jmh {
+    jmhVersion.set("1.35")
+    includeTests.set(false)
+    benchmarkMode.add("thrpt")
+    timeUnit.set("s")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(project.file("${project.buildDir}/reports/jmh/results.json"))
+    jvmArgsAppend.add("-Xmx4G")
+    jvmArgsAppend.add("-Dtaie.project.dir=${project.projectDir}")
+}
+
 java {
     toolchain {
         languageVersion.set(JavaLanguageVersion.of(17))
@@ -0,0 +1,103 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis;
+
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Static utility methods for benchmarking.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Directory where the relative class paths of the benchmarks are
+     * resolved, i.e., the project directory when launched by Gradle.
+     */
+    private static final String PROJECT_DIR =
+            System.getProperty("taie.project.dir", ".");
+
+    /**
+     * Builds the world for a specific program and runs the given analyses
+     * on it, so that the benchmarks can reuse the results of the analyses,
+     * e.g., the control-flow graphs.
+     *
+     * @param main      the main class to be analyzed
+     * @param classPath where the main class is located
+     * @param analyses  the analyses to be executed, in the form of {@code -a}
+     */
+    public static void buildWorld(String main, String classPath, String... analyses) {
+        List<String> args = new ArrayList<>();
+        args.add("-pp");
+        Collections.addAll(args, "-cp", Paths.get(PROJECT_DIR, classPath).toString());
+        Collections.addAll(args, "-m", main);
+        for (String analysis : analyses) {
+            Collections.addAll(args, "-a", analysis);
+        }
+        Main.main(args.toArray(new String[0]));
+    }
+
+    /**
+     * @return the IRs of all concrete methods of the application classes
+     * in the current world.
+     */
+    public static List<IR> getApplicationIRs() {
+        return World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .map(JMethod::getIR)
+                .toList();
+    }
+
+    /**
+     * @param id     ID of the analysis
+     * @param solver the solver variant, which is either a work-list mode
+     *               ({@code "fifo"} or {@code "rpo"}), or a boolean option
+     *               of the analysis which enables another solver or fact
+     *               representation, e.g., {@code "sparse"}
+     * @return the configuration of the analysis with given solver variant.
+     */
+    public static AnalysisConfig newConfig(String id, String solver) {
+        return switch (solver) {
+            case "fifo", "rpo" -> new AnalysisConfig(id, "worklist", solver);
+            default -> new AnalysisConfig(id, solver, true);
+        };
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.analysis.Benchmarks;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+
+import java.util.List;
+
+/**
+ * Benchmarks dead code detection together with the analyses it depends on,
+ * i.e., live variable analysis and constant propagation, which are solved
+ * by the same solver variant.
+ */
+@State(Scope.Benchmark)
+public class DeadCodeBenchmark {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/deadcode";
+
+    @Param({"ControlFlowUnreachable", "DeadAssignment", "Loops",
+            "UnreachableIfBranch", "UnreachableSwitchBranch"})
+    public String program;
+
+    /**
+     * The solver variant, see {@link Benchmarks#newConfig(String, String)}.
+     */
+    @Param({"fifo", "rpo", "basic-block"})
+    public String solver;
+
+    private List<IR> irs;
+
+    private LiveVariableAnalysis liveVar;
+
+    private ConstantPropagation constProp;
+
+    private DeadCodeDetection deadCode;
+
+    @Setup
+    public void setUp() {
+        Benchmarks.buildWorld(program, CLASS_PATH, CFGBuilder.ID);
+        irs = Benchmarks.getApplicationIRs();
+        liveVar = new LiveVariableAnalysis(
+                Benchmarks.newConfig(LiveVariableAnalysis.ID, solver));
+        constProp = new ConstantPropagation(
+                Benchmarks.newConfig(ConstantPropagation.ID, solver));
+        deadCode = new DeadCodeDetection(new AnalysisConfig(DeadCodeDetection.ID));
+    }
+
+    @Benchmark
+    public void solve(Blackhole bh) {
+        for (IR ir : irs) {
+            ir.storeResult(LiveVariableAnalysis.ID, liveVar.analyze(ir));
+            ir.storeResult(ConstantPropagation.ID, constProp.analyze(ir));
+            bh.consume(deadCode.analyze(ir));
+        }
+    }
+}
@@ -39,7 +39,16 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
 
     protected AbstractDataflowAnalysis(AnalysisConfig config) {
         super(config);
-        solver = Solver.makeSolver(this);
+        solver = makeSolver(this);
+    }
+
+    /**
+     * @return a new solver for given analysis, which is configured
+     * by the options of this analysis.
+     */
+    protected Solver<Node, Fact> makeSolver(DataflowAnalysis<Node, Fact> analysis) {
+        return Solver.makeSolver(analysis, getOptions().getString("worklist"),
+                getOptions().getBooleanOrDefault("basic-block", false));
     }
 
     @Override
@@ -49,6 +49,17 @@ public interface DataflowAnalysis<Node, Fact> {
      */
     Fact newInitialFact();
 
+    /**
+     * Analyses whose facts depend on the method being analyzed, e.g.,
+     * facts indexed by the variables of the method, can override this
+     * method to create the initial facts for given CFG.
+     *
+     * @return new initial fact for non-boundary nodes of given CFG.
+     */
+    default Fact newInitialFact(CFG<Node> cfg) {
+        return newInitialFact();
+    }
+
     /**
      * Meets a fact into another (target) fact.
      * This function will be used to handle control-flow confluences.
@@ -73,4 +84,26 @@ public interface DataflowAnalysis<Node, Fact> {
      * Edge Transfer function for this analysis.
      */
     Fact transferEdge(Edge<Node> edge, Fact nodeFact);
+
+    /**
+     * Conditional analyses (e.g., conditional constant propagation) prune
+     * the edges which cannot be taken during solving, so that the nodes
+     * reachable only via such edges are never visited.
+     * Currently, only forward analyses can be conditional.
+     *
+     * @return true if this analysis is conditional, otherwise false.
+     */
+    default boolean isConditional() {
+        return false;
+    }
+
+    /**
+     * For conditional analyses, decides whether given out edge of a node
+     * may be taken under the fact flowing out of the node.
+     *
+     * @return true if given edge is feasible, otherwise false.
+     */
+    default boolean isFeasible(Edge<Node> edge, Fact nodeFact) {
+        return true;
+    }
 }
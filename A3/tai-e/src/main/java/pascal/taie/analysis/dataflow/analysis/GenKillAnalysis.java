@@ -0,0 +1,163 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.GenKill;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.Indexable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base class of distributive bit-vector analyses, whose transfer function
+ * of each statement is {@code gen ∪ (fact − kill)}.
+ * <p>
+ * Before solving a method, the {@link GenKill} sets of all its statements
+ * are computed once, then the solver evaluates the transfer functions
+ * with them, instead of inspecting the statements on every visit.
+ *
+ * @param <E> type of elements of the data-flow facts
+ */
+public abstract class GenKillAnalysis<E extends Indexable> extends
+        AbstractDataflowAnalysis<Stmt, SetFact<E>> {
+
+    protected GenKillAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    /**
+     * @return the elements generated by given statement.
+     */
+    protected abstract Collection<E> getGen(Stmt stmt);
+
+    /**
+     * @return the elements killed by given statement.
+     */
+    protected abstract Collection<E> getKill(Stmt stmt);
+
+    @Override
+    public DataflowResult<Stmt, SetFact<E>> analyze(IR ir) {
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        return makeSolver(new Summarized(computeGenKills(cfg))).solve(cfg);
+    }
+
+    /**
+     * @return the gen and kill sets of all statements in the CFG,
+     * indexed by {@link Stmt#getIndex()}.
+     */
+    private List<GenKill<E>> computeGenKills(CFG<Stmt> cfg) {
+        // two extra slots for the entry and exit nodes of the CFG
+        int size = cfg.getIR().getStmts().size() + 2;
+        List<GenKill<E>> genKills = new ArrayList<>(Collections.nCopies(size, null));
+        for (Stmt stmt : cfg) {
+            genKills.set(stmt.getIndex(), newGenKill(stmt));
+        }
+        return genKills;
+    }
+
+    private GenKill<E> newGenKill(Stmt stmt) {
+        return new GenKill<>(getGen(stmt), getKill(stmt));
+    }
+
+    @Override
+    public boolean transferNode(Stmt stmt, SetFact<E> in, SetFact<E> out) {
+        return transfer(newGenKill(stmt), in, out);
+    }
+
+    private boolean transfer(GenKill<E> genKill, SetFact<E> in, SetFact<E> out) {
+        return isForward() ? genKill.apply(in, out) : genKill.apply(out, in);
+    }
+
+    /**
+     * View of this analysis for a single method, whose transfer functions
+     * use the precomputed gen and kill sets of the method.
+     */
+    private class Summarized implements DataflowAnalysis<Stmt, SetFact<E>> {
+
+        private final List<GenKill<E>> genKills;
+
+        private Summarized(List<GenKill<E>> genKills) {
+            this.genKills = genKills;
+        }
+
+        @Override
+        public boolean isForward() {
+            return GenKillAnalysis.this.isForward();
+        }
+
+        @Override
+        public SetFact<E> newBoundaryFact(CFG<Stmt> cfg) {
+            return GenKillAnalysis.this.newBoundaryFact(cfg);
+        }
+
+        @Override
+        public SetFact<E> newInitialFact() {
+            return GenKillAnalysis.this.newInitialFact();
+        }
+
+        @Override
+        public SetFact<E> newInitialFact(CFG<Stmt> cfg) {
+            return GenKillAnalysis.this.newInitialFact(cfg);
+        }
+
+        @Override
+        public void meetInto(SetFact<E> fact, SetFact<E> target) {
+            GenKillAnalysis.this.meetInto(fact, target);
+        }
+
+        @Override
+        public boolean transferNode(Stmt stmt, SetFact<E> in, SetFact<E> out) {
+            return transfer(genKills.get(stmt.getIndex()), in, out);
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Stmt> edge) {
+            return GenKillAnalysis.this.needTransferEdge(edge);
+        }
+
+        @Override
+        public SetFact<E> transferEdge(Edge<Stmt> edge, SetFact<E> nodeFact) {
+            return GenKillAnalysis.this.transferEdge(edge, nodeFact);
+        }
+
+        @Override
+        public boolean isConditional() {
+            return GenKillAnalysis.this.isConditional();
+        }
+
+        @Override
+        public boolean isFeasible(Edge<Stmt> edge, SetFact<E> nodeFact) {
+            return GenKillAnalysis.this.isFeasible(edge, nodeFact);
+        }
+    }
+}
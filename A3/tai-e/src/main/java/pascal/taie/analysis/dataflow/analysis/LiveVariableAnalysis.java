@@ -22,27 +22,39 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import pascal.taie.analysis.dataflow.fact.IndexedSetFact;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.LValue;
 import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
- * Implementation of classic live variable analysis.
+ * Implementation of classic live variable analysis, in which
+ * each statement generates the variables it uses, and kills
+ * the variable it defines.
  */
-public class LiveVariableAnalysis extends
-        AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
+public class LiveVariableAnalysis extends GenKillAnalysis<Var> {
 
     public static final String ID = "livevar";
 
+    /**
+     * Whether to represent the facts as bit vectors indexed by
+     * {@link Var#getIndex()} (i.e., {@link IndexedSetFact}).
+     */
+    private final boolean bitVector;
+
     public LiveVariableAnalysis(AnalysisConfig config) {
         super(config);
+        bitVector = getOptions().getBooleanOrDefault("bit-vector", false);
     }
 
     @Override
@@ -53,7 +65,7 @@ public class LiveVariableAnalysis extends
     @Override
     public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        return new SetFact<>();
+        return newFact(cfg.getIR());
     }
 
     @Override
@@ -62,6 +74,17 @@ public class LiveVariableAnalysis extends
         return new SetFact<>();
     }
 
+    @Override
+    public SetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+        return newFact(cfg.getIR());
+    }
+
+    private SetFact<Var> newFact(IR ir) {
+        return bitVector ?
+                new IndexedSetFact<>(ir.getVars().size(), ir::getVar) :
+                new SetFact<>();
+    }
+
     @Override
     public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
         // TODO - finish me
@@ -69,30 +92,20 @@ public class LiveVariableAnalysis extends
     }
 
     @Override
-    public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // TODO - finish me
-        boolean changed = false;
-        SetFact<Var> old_in = in.copy();
-        SetFact<Var> new_in = out.copy();
-        Optional<LValue> def = stmt.getDef();
-        List<RValue> uses = stmt.getUses();
-
-        if(def.isPresent()){
-            Var varDef = (Var) def.get();
-            new_in.remove(varDef);
-        }
-
-        for(RValue use : uses){
-            if(use instanceof Var varUse){
-                new_in.add(varUse);
+    protected Collection<Var> getGen(Stmt stmt) {
+        List<Var> gen = new ArrayList<>();
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var var) {
+                gen.add(var);
             }
         }
+        return gen;
+    }
 
-        if (!new_in.equals(old_in)) {
-            changed = true;
-            in.set(new_in);
-        }
-
-        return changed;
+    @Override
+    protected Collection<Var> getKill(Stmt stmt) {
+        Optional<LValue> def = stmt.getDef();
+        return def.isPresent() && def.get() instanceof Var var ?
+                List.of(var) : List.of();
     }
 }
@@ -0,0 +1,153 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.ir.IR;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Driver which runs intraprocedural analyses (e.g., live variable analysis,
+ * constant propagation and dead code detection) on all given methods
+ * in parallel, and stores the result of each analysis in the IR of
+ * each method, just as if the analyses were run one method at a time.
+ * <p>
+ * The methods are independent of each other, so each method is analyzed
+ * by a separate task of a {@link ForkJoinPool}, and the analyses are run
+ * on the method in the given order, thus an analysis can use the results
+ * of the previous analyses on the same method. As every result is stored
+ * in the IR of the method it belongs to, the results do not depend on
+ * the scheduling of the tasks.
+ * <p>
+ * The analyses rely on the results of the analyses which are not run
+ * by this driver, e.g., the CFG of each method, thus the driver checks
+ * that these results are available in the IR of each method before
+ * running the analyses on it.
+ */
+public class ParallelDataflowDriver {
+
+    private final int parallelism;
+
+    /**
+     * IDs of the results which must be stored in the IR of each method
+     * before the analyses are run on it.
+     */
+    private final List<String> requiredResults;
+
+    /**
+     * Creates a driver whose analyses require only the CFGs of the methods.
+     *
+     * @param parallelism number of worker threads, or a non-positive
+     *                    number to use all available processors
+     */
+    public ParallelDataflowDriver(int parallelism) {
+        this(parallelism, List.of(CFGBuilder.ID));
+    }
+
+    /**
+     * @param parallelism     number of worker threads, or a non-positive
+     *                        number to use all available processors
+     * @param requiredResults IDs of the results required by the analyses
+     */
+    public ParallelDataflowDriver(int parallelism, List<String> requiredResults) {
+        this.parallelism = parallelism > 0 ? parallelism :
+                Runtime.getRuntime().availableProcessors();
+        this.requiredResults = List.copyOf(requiredResults);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs the analyses on the given methods.
+     *
+     * @param analyses the analyses to run, in the order they are run
+     *                 on each method
+     * @param methods  the methods to be analyzed; abstract and native
+     *                 methods are skipped as they have no IR
+     * @throws AnalysisException if any required result is missing
+     *                           in the IR of a method.
+     */
+    public void run(List<? extends MethodAnalysis> analyses,
+                    Collection<JMethod> methods) {
+        List<Callable<Void>> tasks = methods.stream()
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .<Callable<Void>>map(m -> () -> {
+                    IR ir = m.getIR();
+                    checkRequiredResults(ir);
+                    for (MethodAnalysis analysis : analyses) {
+                        Object result = analysis.analyze(ir);
+                        if (result != null) {
+                            ir.storeResult(analysis.getId(), result);
+                        }
+                    }
+                    return null;
+                })
+                .toList();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Interrupted while running " +
+                    "intraprocedural analyses", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AnalysisException cause) {
+                throw cause;
+            }
+            throw new AnalysisException("Failed to run " +
+                    "intraprocedural analyses", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void checkRequiredResults(IR ir) {
+        for (String id : requiredResults) {
+            if (ir.getResult(id) == null) {
+                throw new AnalysisException("Result of " + id +
+                        " is not available in the IR of " + ir.getMethod() +
+                        ", please run " + id + " before this driver");
+            }
+        }
+    }
+
+    /**
+     * Runs a single analysis on the given methods.
+     */
+    public void run(MethodAnalysis analysis, Collection<JMethod> methods) {
+        run(List.of(analysis), methods);
+    }
+}
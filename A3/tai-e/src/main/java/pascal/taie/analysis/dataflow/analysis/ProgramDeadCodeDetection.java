@@ -0,0 +1,280 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.Options;
+import pascal.taie.config.PlanConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dead code detection on all methods of the application classes.
+ * <p>
+ * Unlike {@link DeadCodeDetection}, which relies on the results of
+ * constant propagation and live variable analysis of every method, this
+ * analysis runs them on demand, and the methods are analyzed in parallel
+ * by {@link ParallelDataflowDriver}.
+ * The results can be cached in a file, keyed by the hash of the IR of
+ * each method and the options of the analyses, so that the methods which
+ * are unchanged since the last run are not analyzed again.
+ * <p>
+ * Constant propagation and live variable analysis are run with the options
+ * given to {@code constprop} and {@code livevar} by the user (in the plan
+ * file or the command line), if any, otherwise with their default options.
+ * <p>
+ * The dead code of each method is stored in its IR with the ID of this
+ * analysis, just like the results of method analyses.
+ */
+public class ProgramDeadCodeDetection extends ProgramAnalysis {
+
+    public static final String ID = "program-deadcode";
+
+    private static final Logger logger = LogManager.getLogger(ProgramDeadCodeDetection.class);
+
+    /**
+     * Number of threads to analyze the methods,
+     * see {@link ParallelDataflowDriver#ParallelDataflowDriver(int)}.
+     */
+    private final int parallelism;
+
+    /**
+     * Path to the cache file, or {@code null} if the cache is disabled.
+     */
+    private final String cacheFile;
+
+    private final ConstantPropagation constprop;
+
+    private final LiveVariableAnalysis livevar;
+
+    /**
+     * Options of constant propagation and live variable analysis,
+     * which are part of the keys of the cache.
+     */
+    private final String analysisOptions;
+
+    public ProgramDeadCodeDetection(AnalysisConfig config) {
+        super(config);
+        parallelism = getOptions().getInt("parallelism");
+        cacheFile = getOptions().getString("cache");
+        List<PlanConfig> plan = readPlan();
+        AnalysisConfig constpropConfig = getConfig(plan,
+                ConstantPropagation.ID, ConstantPropagation.class);
+        AnalysisConfig livevarConfig = getConfig(plan,
+                LiveVariableAnalysis.ID, LiveVariableAnalysis.class);
+        constprop = new ConstantPropagation(constpropConfig);
+        livevar = new LiveVariableAnalysis(livevarConfig);
+        analysisOptions = constpropConfig.getOptions() + "\n" +
+                livevarConfig.getOptions();
+    }
+
+    /**
+     * @return the analysis plan given by the user.
+     */
+    private static List<PlanConfig> readPlan() {
+        Options options = World.get().getOptions();
+        return options.getPlanFile() != null ?
+                PlanConfig.readConfigs(options.getPlanFile()) :
+                PlanConfig.readConfigs(options);
+    }
+
+    /**
+     * @return the config of given analysis with the options in the plan,
+     * or with the default options if the analysis is not in the plan.
+     */
+    private static AnalysisConfig getConfig(
+            List<PlanConfig> plan, String id, Class<?> analysisClass) {
+        return plan.stream()
+                .filter(planConfig -> planConfig.getId().equals(id))
+                .findFirst()
+                .map(planConfig -> new AnalysisConfig(null,
+                        analysisClass.getName(), id, null,
+                        planConfig.getOptions()))
+                .orElseGet(() -> new AnalysisConfig(id));
+    }
+
+    @Override
+    public Object analyze() {
+        Map<String, int[]> cache = cacheFile != null ?
+                readCache(Path.of(cacheFile)) : Map.of();
+        Map<String, int[]> newCache = new ConcurrentHashMap<>();
+        AtomicInteger reused = new AtomicInteger();
+        List<JMethod> methods = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .toList();
+        MethodAnalysis detector = new MethodAnalysis(new AnalysisConfig(ID)) {
+            @Override
+            public Set<Stmt> analyze(IR ir) {
+                String hash = hash(ir);
+                int[] indexes = cache.get(hash);
+                Set<Stmt> deadCode;
+                if (indexes != null) {
+                    deadCode = toStmts(ir, indexes);
+                    reused.incrementAndGet();
+                } else {
+                    deadCode = detect(ir);
+                    indexes = deadCode.stream().mapToInt(Stmt::getIndex).toArray();
+                }
+                newCache.put(hash, indexes);
+                return deadCode;
+            }
+        };
+        new ParallelDataflowDriver(parallelism).run(detector, methods);
+        logger.info("{} methods analyzed, {} reused from cache",
+                methods.size() - reused.get(), reused.get());
+        if (cacheFile != null) {
+            writeCache(Path.of(cacheFile), newCache);
+        }
+        // the results are stored in the IRs
+        return null;
+    }
+
+    private Set<Stmt> detect(IR ir) {
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        DataflowResult<Stmt, CPFact> constants = constprop.analyze(ir);
+        DataflowResult<Stmt, SetFact<Var>> liveVars = livevar.analyze(ir);
+        return DeadCodeDetection.detect(cfg, constprop, constants, liveVars);
+    }
+
+    private static Set<Stmt> toStmts(IR ir, int[] indexes) {
+        Set<Stmt> stmts = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
+        for (int index : indexes) {
+            stmts.add(ir.getStmt(index));
+        }
+        return stmts;
+    }
+
+    /**
+     * @return the hash of the content of given IR, i.e., the signature
+     * of the method and its statements along with their line numbers,
+     * together with {@link #analysisOptions}.
+     */
+    private String hash(IR ir) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AnalysisException("SHA-256 is not supported", e);
+        }
+        digest.update(analysisOptions.getBytes(StandardCharsets.UTF_8));
+        digest.update(ir.getMethod().toString().getBytes(StandardCharsets.UTF_8));
+        for (Stmt stmt : ir) {
+            String s = "\n" + stmt.getLineNumber() + ": " + stmt;
+            digest.update(s.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Reads the cache file, in which each line is the hash of an IR,
+     * followed by the indexes of the dead statements in the IR.
+     * A missing or malformed file is regarded as an empty cache.
+     */
+    private static Map<String, int[]> readCache(Path path) {
+        Map<String, int[]> cache = new ConcurrentHashMap<>();
+        if (!Files.exists(path)) {
+            return cache;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] items = line.split(" ");
+                int[] indexes = Arrays.stream(items, 1, items.length)
+                        .mapToInt(Integer::parseInt)
+                        .toArray();
+                if (Arrays.stream(indexes).anyMatch(i -> i < 0)) {
+                    throw new NumberFormatException(
+                            "negative statement index: " + line);
+                }
+                cache.put(items[0], indexes);
+            }
+        } catch (NumberFormatException | CharacterCodingException e) {
+            logger.warn("Ignored malformed cache file {}: {}",
+                    path, e.getMessage());
+            cache.clear();
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to read cache file", e);
+        }
+        return cache;
+    }
+
+    /**
+     * Writes the cache file, whose lines are sorted by the hashes,
+     * so that the file does not depend on the order of the analyzed methods.
+     */
+    private static void writeCache(Path path, Map<String, int[]> cache) {
+        // unlike PrintStream, the writer reports the failures of writing
+        try (BufferedWriter out = Files.newBufferedWriter(path)) {
+            for (Map.Entry<String, int[]> entry : new TreeMap<>(cache).entrySet()) {
+                out.write(entry.getKey());
+                for (int index : entry.getValue()) {
+                    out.write(" " + index);
+                }
+                out.newLine();
+            }
+        } catch (IOException e) {
+            throw new AnalysisException("Failed to write cache file", e);
+        }
+    }
+}
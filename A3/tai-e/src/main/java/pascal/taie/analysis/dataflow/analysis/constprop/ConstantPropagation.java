@@ -23,12 +23,18 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
 import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
@@ -42,8 +48,57 @@ public class ConstantPropagation extends
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether to propagate constants conditionally, i.e., to prune the
+     * branches which cannot be taken under the constant conditions
+     * during solving, see {@link #isFeasible(Edge, CPFact)}.
+     */
+    private final boolean edgeRefine;
+
+    /**
+     * Whether to propagate values along def-use chains
+     * by {@link SparseCPSolver} instead of the data-flow solver.
+     */
+    private final boolean sparse;
+
+    /**
+     * Whether to back the facts by {@link pascal.taie.analysis.dataflow.fact.PersistentMap}s,
+     * so that copying a fact shares the mappings instead of copying them.
+     */
+    private final boolean persistentFact;
+
+    /**
+     * Whether to encode the facts in primitive arrays, see {@link PrimitiveCPFact}.
+     */
+    private final boolean primitiveFact;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        edgeRefine = getOptions().getBooleanOrDefault("edge-refine", false);
+        sparse = getOptions().getBooleanOrDefault("sparse", false);
+        persistentFact = getOptions().getBooleanOrDefault("persistent-fact", false);
+        primitiveFact = getOptions().getBooleanOrDefault("primitive-fact", false);
+        if (persistentFact && primitiveFact) {
+            throw new ConfigException("persistent-fact and primitive-fact" +
+                    " cannot be enabled together");
+        }
+        if (sparse && (edgeRefine || persistentFact || primitiveFact ||
+                getOptions().getBooleanOrDefault("basic-block", false))) {
+            // SparseCPSolver propagates values along all def-use chains,
+            // and builds the facts of the result on demand as plain CPFacts
+            throw new ConfigException("sparse cannot be enabled together" +
+                    " with edge-refine, basic-block, persistent-fact" +
+                    " or primitive-fact");
+        }
+    }
+
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(IR ir) {
+        if (sparse) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return new SparseCPSolver(this, cfg).solve();
+        }
+        return super.analyze(ir);
     }
 
     @Override
@@ -51,10 +106,43 @@ public class ConstantPropagation extends
         return true;
     }
 
+    @Override
+    public boolean isConditional() {
+        return edgeRefine;
+    }
+
+    /**
+     * An out edge of {@link If} (or {@link SwitchStmt}) is infeasible
+     * if the condition (or the switch variable) is a constant which
+     * does not lead to the edge.
+     */
+    @Override
+    public boolean isFeasible(Edge<Stmt> edge, CPFact nodeFact) {
+        Stmt source = edge.getSource();
+        if (source instanceof If ifStmt) {
+            Value cond = evaluate(ifStmt.getCondition(), nodeFact);
+            if (cond != null && cond.isConstant()) {
+                return edge.getKind() == (cond.getConstant() != 0 ?
+                        Edge.Kind.IF_TRUE : Edge.Kind.IF_FALSE);
+            }
+        } else if (source instanceof SwitchStmt switchStmt) {
+            Var var = switchStmt.getVar();
+            if (nodeFact.isConstant(var)) {
+                int value = nodeFact.getConstant(var);
+                if (edge.isSwitchCase()) {
+                    return edge.getCaseValue() == value;
+                } else if (edge.getKind() == Edge.Kind.SWITCH_DEFAULT) {
+                    return !switchStmt.getCaseValues().contains(value);
+                }
+            }
+        }
+        return true;
+    }
+
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        CPFact boundary = new CPFact();
+        CPFact boundary = newFact();
 
         for(Var var : cfg.getIR().getVars()){
             if(!canHoldInt(var)){
@@ -79,12 +167,27 @@ public class ConstantPropagation extends
     public CPFact newInitialFact() {
         // TODO - finish me
 
-        return new CPFact();
+        return newFact();
+    }
+
+    /**
+     * @return a new empty fact of the kind selected by the options.
+     */
+    private CPFact newFact() {
+        if (primitiveFact) {
+            return new PrimitiveCPFact();
+        }
+        return persistentFact ? CPFact.newPersistentFact() : new CPFact();
     }
 
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // TODO - finish me
+        if (fact instanceof PrimitiveCPFact primitiveSource &&
+                target instanceof PrimitiveCPFact primitiveTarget) {
+            primitiveTarget.meet(primitiveSource);
+            return;
+        }
         for(Var var: fact.keySet()) {
             Value source = fact.get(var);
             Value dest = target.get(var);
@@ -162,12 +265,9 @@ public class ConstantPropagation extends
             Var var2 = binaryExp.getOperand2();
             BinaryExp.Op op = binaryExp.getOperator();
 
-            Value v1 = in.get(var1);
-            Value v2 = in.get(var2);
-
-            if(v1.isConstant() && v2.isConstant()) {
-                int val1 = v1.getConstant();
-                int val2 = v2.getConstant();
+            if(in.isConstant(var1) && in.isConstant(var2)) {
+                int val1 = in.getConstant(var1);
+                int val2 = in.getConstant(var2);
                 if (exp instanceof ArithmeticExp) {
                     switch ((ArithmeticExp.Op) op) {
                         case ADD -> {
@@ -237,17 +337,17 @@ public class ConstantPropagation extends
                         }
                     }
                 }
-            } else if(v1.isNAC() || v2.isNAC()) {
+            } else if(in.isNAC(var1) || in.isNAC(var2)) {
                 if(binaryExp instanceof ArithmeticExp) {
                     if(op == DIV || op == REM) {
                         // division by zero may happen
-                        if(v2.isConstant() && v2.getConstant() == 0) {
+                        if(in.isConstant(var2) && in.getConstant(var2) == 0) {
                             return Value.getUndef();
                         }
                     }
                     else return Value.getNAC();
                 }
-            } else if(v1.isUndef() || v2.isUndef()) {
+            } else if(in.isUndef(var1) || in.isUndef(var2)) {
                 return Value.getUndef();
             }
         }
@@ -0,0 +1,397 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.SolverStats;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.SetQueue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Sparse solver of constant propagation, which propagates {@link Value}s
+ * only along def-use chains, instead of carrying a whole {@link CPFact}
+ * through every statement.
+ * <p>
+ * The definitions are the statements that assign to variables which
+ * can hold integers, plus the definitions of the parameters (and
+ * {@code this}) of the method by the CFG entry. The solver first computes
+ * the reaching definitions of the method in a single bit-vector pass,
+ * from which the def-use chains are built. Then it keeps one value per
+ * definition instead of one fact per statement. The reaching definitions
+ * still take a bit vector of the definitions per statement, i.e.,
+ * statements × definitions bits. Per-statement facts are rebuilt on demand
+ * from the reaching definitions by the {@link DataflowResult} returned
+ * by {@link #solve()}.
+ * <p>
+ * As the values are propagated along all def-use chains and the facts
+ * are plain {@link CPFact}s, this solver does not support the options
+ * edge-refine, basic-block, persistent-fact and primitive-fact.
+ */
+class SparseCPSolver {
+
+    /**
+     * Index of the definition of a statement which defines nothing.
+     */
+    private static final int NO_DEF = -1;
+
+    private final ConstantPropagation cp;
+
+    private final CFG<Stmt> cfg;
+
+    /**
+     * Map from indexes of definitions to the defined variables.
+     */
+    private final List<Var> defVars = new ArrayList<>();
+
+    /**
+     * Map from indexes of definitions to the defining statements,
+     * i.e., the CFG entry for the parameters and this.
+     */
+    private final List<Stmt> defStmts = new ArrayList<>();
+
+    /**
+     * Map from indexes of statements to the indexes of their definitions,
+     * or {@link #NO_DEF}. The definitions of the CFG entry are not here.
+     */
+    private final int[] stmtDefs;
+
+    /**
+     * Map from each variable to all its definitions.
+     */
+    private final Map<Var, BitSet> varDefs = Maps.newMap();
+
+    /**
+     * Definitions of the CFG entry.
+     */
+    private final BitSet entryDefs = new BitSet();
+
+    /**
+     * Map from indexes of statements to the definitions reaching
+     * the program points after the statements.
+     */
+    private final BitSet[] reachingDefs;
+
+    /**
+     * Lattice values of the definitions. Null means UNDEF.
+     */
+    private Value[] values;
+
+    /**
+     * Map from each definition statement to the definitions reaching it,
+     * for each variable the statement needs to evaluate its right-hand side.
+     */
+    private final Map<Stmt, Map<Var, BitSet>> useDefs = Maps.newMap();
+
+    /**
+     * Reverse of {@link #useDefs}, i.e., map from each definition statement
+     * to the definition statements which may use the value it defines.
+     */
+    private final MultiMap<Stmt, Stmt> defUses = Maps.newMultiMap();
+
+    SparseCPSolver(ConstantPropagation cp, CFG<Stmt> cfg) {
+        this.cp = cp;
+        this.cfg = cfg;
+        // two extra slots for the entry and exit nodes of the CFG,
+        // see StmtDataflowResult
+        int size = cfg.getIR().getStmts().size() + 2;
+        stmtDefs = new int[size];
+        reachingDefs = new BitSet[size];
+    }
+
+    /**
+     * Solves constant propagation for the CFG.
+     *
+     * @return a view of the result, which rebuilds the fact of each
+     * statement when it is queried.
+     */
+    DataflowResult<Stmt, CPFact> solve() {
+        long start = System.nanoTime();
+        Result result = new Result();
+        SolverStats stats = result.getStats();
+        collectDefs();
+        computeReachingDefs();
+        buildDefUseChains();
+        Queue<Stmt> workList = new SetQueue<>();
+        useDefs.keySet().forEach(workList::add);
+        stats.updateWorkListSize(workList.size());
+        while (!workList.isEmpty()) {
+            Stmt def = workList.poll();
+            stats.countNodeVisit();
+            stats.countTransfer();
+            Value value = evaluateDef(def);
+            int index = stmtDefs[def.getIndex()];
+            if (!value.equals(valueOf(index))) {
+                values[index] = value.isUndef() ? null : value;
+                workList.addAll(defUses.get(def));
+                stats.updateWorkListSize(workList.size());
+            }
+        }
+        stats.addWallTime(System.nanoTime() - start);
+        countFactSizes(stats);
+        return result;
+    }
+
+    /**
+     * Numbers the definitions of the method.
+     */
+    private void collectDefs() {
+        IR ir = cfg.getIR();
+        Stmt entry = cfg.getEntry();
+        List<Var> entryVars = new ArrayList<>();
+        if (ir.getThis() != null) {
+            entryVars.add(ir.getThis());
+        }
+        entryVars.addAll(ir.getParams());
+        for (Var var : entryVars) {
+            if (ConstantPropagation.canHoldInt(var)) {
+                entryDefs.set(addDef(var, entry));
+            }
+        }
+        Arrays.fill(stmtDefs, NO_DEF);
+        for (Stmt stmt : cfg) {
+            Var lhs = getDefinedVar(stmt);
+            if (lhs != null) {
+                stmtDefs[stmt.getIndex()] = addDef(lhs, stmt);
+            }
+        }
+        values = new Value[defVars.size()];
+        // the parameters and this are NAC at the CFG entry
+        entryDefs.stream().forEach(def -> values[def] = Value.getNAC());
+    }
+
+    /**
+     * @return the index of the new definition.
+     */
+    private int addDef(Var var, Stmt stmt) {
+        int index = defVars.size();
+        defVars.add(var);
+        defStmts.add(stmt);
+        varDefs.computeIfAbsent(var, v -> new BitSet()).set(index);
+        return index;
+    }
+
+    /**
+     * Computes the reaching definitions of all statements, i.e., a forward
+     * may analysis whose facts are the bit vectors of the definitions.
+     */
+    private void computeReachingDefs() {
+        Queue<Stmt> workList = new SetQueue<>();
+        for (Stmt stmt : cfg) {
+            reachingDefs[stmt.getIndex()] = new BitSet();
+            workList.add(stmt);
+        }
+        while (!workList.isEmpty()) {
+            Stmt stmt = workList.poll();
+            BitSet out = getReachingDefsBefore(stmt);
+            if (cfg.isEntry(stmt)) {
+                out.or(entryDefs);
+            } else {
+                int def = stmtDefs[stmt.getIndex()];
+                if (def != NO_DEF) {
+                    out.andNot(varDefs.get(defVars.get(def)));
+                    out.set(def);
+                }
+            }
+            if (!out.equals(reachingDefs[stmt.getIndex()])) {
+                reachingDefs[stmt.getIndex()] = out;
+                workList.addAll(cfg.getSuccsOf(stmt));
+            }
+        }
+    }
+
+    /**
+     * @return the definitions which reach the program point before
+     * given statement, i.e., the union of the ones after its predecessors.
+     */
+    private BitSet getReachingDefsBefore(Stmt stmt) {
+        BitSet in = new BitSet();
+        for (Stmt pred : cfg.getPredsOf(stmt)) {
+            in.or(reachingDefs[pred.getIndex()]);
+        }
+        return in;
+    }
+
+    private void buildDefUseChains() {
+        for (Stmt stmt : cfg) {
+            if (stmtDefs[stmt.getIndex()] == NO_DEF) {
+                continue;
+            }
+            BitSet in = getReachingDefsBefore(stmt);
+            Map<Var, BitSet> useDefsOfStmt = Maps.newHybridMap();
+            RValue rhs = ((DefinitionStmt<?, ?>) stmt).getRValue();
+            for (Var var : getOperands(rhs)) {
+                addUseDefs(stmt, var, in, useDefsOfStmt);
+            }
+            // the left-hand side is needed when the right-hand side
+            // cannot be evaluated, in which case the value flows through
+            addUseDefs(stmt, getDefinedVar(stmt), in, useDefsOfStmt);
+            useDefs.put(stmt, useDefsOfStmt);
+        }
+    }
+
+    private void addUseDefs(Stmt stmt, Var var, BitSet in,
+                            Map<Var, BitSet> useDefsOfStmt) {
+        BitSet defsOfVar = varDefs.get(var);
+        if (defsOfVar != null && !useDefsOfStmt.containsKey(var)) {
+            BitSet defs = (BitSet) in.clone();
+            defs.and(defsOfVar);
+            useDefsOfStmt.put(var, defs);
+            defs.stream().forEach(def -> defUses.put(defStmts.get(def), stmt));
+        }
+    }
+
+    /**
+     * Evaluates the right-hand side of a definition statement with
+     * the values of its reaching definitions.
+     */
+    private Value evaluateDef(Stmt def) {
+        Map<Var, BitSet> useDefsOfStmt = useDefs.get(def);
+        RValue rhs = ((DefinitionStmt<?, ?>) def).getRValue();
+        CPFact in = new CPFact();
+        for (Var var : getOperands(rhs)) {
+            in.update(var, meetDefs(useDefsOfStmt.get(var)));
+        }
+        Value value = ConstantPropagation.evaluate(rhs, in);
+        if (value == null) {
+            // the right-hand side cannot be evaluated,
+            // then the variable keeps its value
+            value = meetDefs(useDefsOfStmt.get(getDefinedVar(def)));
+        }
+        return value;
+    }
+
+    /**
+     * @return the meet of the values of given definitions.
+     */
+    private Value meetDefs(BitSet defs) {
+        Value result = Value.getUndef();
+        if (defs != null) {
+            for (int def = defs.nextSetBit(0); def >= 0;
+                 def = defs.nextSetBit(def + 1)) {
+                result = cp.meetValue(result, valueOf(def));
+            }
+        }
+        return result;
+    }
+
+    private Value valueOf(int def) {
+        Value value = values[def];
+        return value != null ? value : Value.getUndef();
+    }
+
+    /**
+     * @return the fact which holds the meet of the values
+     * of given definitions for each variable.
+     */
+    private CPFact newFact(BitSet defs) {
+        CPFact fact = new CPFact();
+        for (int def = defs.nextSetBit(0); def >= 0;
+             def = defs.nextSetBit(def + 1)) {
+            Var var = defVars.get(def);
+            fact.update(var, cp.meetValue(fact.get(var), valueOf(def)));
+        }
+        return fact;
+    }
+
+    /**
+     * Counts the sizes of the out facts like the data-flow solvers,
+     * without building the facts. A variable is in the out fact of
+     * a statement iff any of its definitions reaching the program point
+     * after the statement is not UNDEF.
+     */
+    private void countFactSizes(SolverStats stats) {
+        BitSet vars = new BitSet();
+        for (Stmt stmt : cfg) {
+            BitSet defs = reachingDefs[stmt.getIndex()];
+            for (int def = defs.nextSetBit(0); def >= 0;
+                 def = defs.nextSetBit(def + 1)) {
+                if (values[def] != null) {
+                    vars.set(defVars.get(def).getIndex());
+                }
+            }
+            stats.countFactSize(vars.cardinality());
+            vars.clear();
+        }
+    }
+
+    /**
+     * @return the variable defined by given statement if it is relevant
+     * to constant propagation, otherwise null.
+     */
+    private static Var getDefinedVar(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> defStmt &&
+                defStmt.getLValue() instanceof Var var &&
+                ConstantPropagation.canHoldInt(var)) {
+            return var;
+        }
+        return null;
+    }
+
+    /**
+     * @return the variables whose values are read by
+     * {@link ConstantPropagation#evaluate} to evaluate given expression.
+     */
+    private static List<Var> getOperands(RValue rhs) {
+        if (rhs instanceof Var var) {
+            return List.of(var);
+        } else if (rhs instanceof BinaryExp binaryExp) {
+            return List.of(binaryExp.getOperand1(), binaryExp.getOperand2());
+        } else {
+            return List.of();
+        }
+    }
+
+    /**
+     * View of the result of sparse constant propagation. The facts are
+     * not stored, instead, each query rebuilds a fresh fact from the values
+     * of the definitions reaching the statement, which costs time linear
+     * to the number of such definitions.
+     */
+    private class Result extends DataflowResult<Stmt, CPFact> {
+
+        @Override
+        public CPFact getInFact(Stmt stmt) {
+            return newFact(getReachingDefsBefore(stmt));
+        }
+
+        @Override
+        public CPFact getOutFact(Stmt stmt) {
+            return newFact(reachingDefs[stmt.getIndex()]);
+        }
+    }
+}
@@ -22,8 +22,13 @@
 
 package pascal.taie.analysis.dataflow.fact;
 
+import pascal.taie.analysis.dataflow.solver.SolverStats;
+import pascal.taie.analysis.graph.cfg.Edge;
+
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * An object which manages the data-flow facts associated with nodes.
@@ -37,6 +42,10 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
 
     private final Map<Node, Fact> outFacts = new LinkedHashMap<>();
 
+    private final SolverStats stats = new SolverStats();
+
+    private Set<Edge<Node>> executableEdges;
+
     /**
      * @return the flowing-in fact of given node.
      */
@@ -66,4 +75,27 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
     public void setOutFact(Node node, Fact fact) {
         outFacts.put(node, fact);
     }
+
+    /**
+     * @return the edges which may be taken, as found by the solver of
+     * a conditional analysis, or null if the solver does not prune edges.
+     */
+    public Set<Edge<Node>> getExecutableEdges() {
+        return executableEdges == null ? null :
+                Collections.unmodifiableSet(executableEdges);
+    }
+
+    /**
+     * Sets the executable edges found by the solver.
+     */
+    public void setExecutableEdges(Set<Edge<Node>> executableEdges) {
+        this.executableEdges = executableEdges;
+    }
+
+    /**
+     * @return the statistics of the solver run which produces this result.
+     */
+    public SolverStats getStats() {
+        return stats;
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Gen and kill sets of a node, which define the transfer function
+ * {@code gen ∪ (fact − kill)} of distributive bit-vector analyses.
+ * <p>
+ * Besides the elements, the sets are also encoded as masks over
+ * the words of {@link IndexedSetFact}s, so that the transfer function
+ * on such facts is evaluated word by word without any allocation.
+ *
+ * @param <E> type of elements
+ */
+public class GenKill<E extends Indexable> {
+
+    private final List<E> gen;
+
+    private final List<E> kill;
+
+    /**
+     * Sorted indexes of the words which are affected by gen or kill.
+     */
+    final int[] wordIndexes;
+
+    /**
+     * Masks of gen and kill sets, for the words in {@link #wordIndexes}.
+     */
+    final long[] genMasks;
+
+    final long[] killMasks;
+
+    public GenKill(Collection<E> gen, Collection<E> kill) {
+        this.gen = List.copyOf(gen);
+        this.kill = List.copyOf(kill);
+        wordIndexes = Stream.concat(gen.stream(), kill.stream())
+                .mapToInt(e -> IndexedSetFact.wordIndex(e.getIndex()))
+                .distinct()
+                .sorted()
+                .toArray();
+        genMasks = new long[wordIndexes.length];
+        killMasks = new long[wordIndexes.length];
+        for (E e : gen) {
+            genMasks[maskIndex(e)] |= 1L << e.getIndex();
+        }
+        for (E e : kill) {
+            killMasks[maskIndex(e)] |= 1L << e.getIndex();
+        }
+    }
+
+    private int maskIndex(E e) {
+        return Arrays.binarySearch(wordIndexes,
+                IndexedSetFact.wordIndex(e.getIndex()));
+    }
+
+    public List<E> getGen() {
+        return gen;
+    }
+
+    public List<E> getKill() {
+        return kill;
+    }
+
+    /**
+     * Sets {@code target} to {@code gen ∪ (base − kill)}.
+     * The two facts must be different objects.
+     *
+     * @return true if {@code target} changed as a result of the call,
+     * otherwise false.
+     */
+    public boolean apply(SetFact<E> base, SetFact<E> target) {
+        if (base instanceof IndexedSetFact<E> indexedBase &&
+                target instanceof IndexedSetFact<E> indexedTarget) {
+            return indexedTarget.setGenKill(indexedBase, this);
+        }
+        boolean changed = target.removeIf(e -> !gen.contains(e) &&
+                (kill.contains(e) || !base.contains(e)));
+        for (Iterator<E> it = base.stream().iterator(); it.hasNext(); ) {
+            E e = it.next();
+            if (!kill.contains(e)) {
+                changed |= target.add(e);
+            }
+        }
+        for (E e : gen) {
+            changed |= target.add(e);
+        }
+        return changed;
+    }
+
+    @Override
+    public String toString() {
+        return "GenKill{gen=" + gen + ", kill=" + kill + "}";
+    }
+}
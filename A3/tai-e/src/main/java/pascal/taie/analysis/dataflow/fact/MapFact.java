@@ -41,7 +41,12 @@ import java.util.stream.Stream;
 public class MapFact<K, V> {
 
     /**
-     * The map holding the mappings of this MapFact.
+     * The map holding the mappings of this MapFact, or {@code null} if
+     * the mappings are kept by a subclass in its own way, e.g.,
+     * {@link pascal.taie.analysis.dataflow.analysis.constprop.PrimitiveCPFact}.
+     * In such case, the subclass overrides all methods which access
+     * this field, and the facts of different kinds are combined
+     * via {@link #entries()}.
      */
     protected final Map<K, V> map;
 
@@ -54,6 +59,17 @@ public class MapFact<K, V> {
         this.map = Maps.newHybridMap(map);
     }
 
+    /**
+     * Constructs a new MapFact backed by given persistent map.
+     * The map is not copied, and copies of this fact share its trie,
+     * see {@link PersistentMap}.
+     *
+     * @param map the backing persistent map, or {@code null}, see {@link #map}.
+     */
+    protected MapFact(PersistentMap<K, V> map) {
+        this.map = map;
+    }
+
     /**
      * @return the value to which the specified key is mapped,
      * or null if this map contains no mapping for the key.
@@ -88,7 +104,9 @@ public class MapFact<K, V> {
      */
     public boolean copyFrom(MapFact<K, V> fact) {
         boolean changed = false;
-        for (Map.Entry<K, V> entry : fact.map.entrySet()) {
+        Iterable<Map.Entry<K, V>> entries = fact.map != null ?
+                fact.map.entrySet() : fact.entries()::iterator;
+        for (Map.Entry<K, V> entry : entries) {
             changed |= update(entry.getKey(), entry.getValue());
         }
         return changed;
@@ -98,7 +116,9 @@ public class MapFact<K, V> {
      * Creates and returns a copy of this fact.
      */
     public MapFact<K, V> copy() {
-        return new MapFact<>(this.map);
+        return map instanceof PersistentMap<K, V> persistentMap ?
+                new MapFact<>(persistentMap.copy()) :
+                new MapFact<>(this.map);
     }
 
     /**
@@ -108,6 +128,13 @@ public class MapFact<K, V> {
         map.clear();
     }
 
+    /**
+     * @return the number of key-value mappings in this fact.
+     */
+    public int size() {
+        return map.size();
+    }
+
     /**
      * @return a {@link Set} view of the keys contained in this fact.
      */
@@ -137,6 +164,10 @@ public class MapFact<K, V> {
         if (this == o) {
             return true;
         }
+        if (o instanceof MapFact<?, ?> that && that.map == null) {
+            // let the other kind of fact compare the mappings
+            return that.equals(this);
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
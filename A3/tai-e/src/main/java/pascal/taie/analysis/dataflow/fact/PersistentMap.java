@@ -0,0 +1,500 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map backed by a persistent hash array mapped trie. The trie is never
+ * modified in place: {@link #put} and {@link #remove} copy only the path
+ * from the root to the changed entry, in O(log n) time, and {@link #copy()}
+ * simply shares the trie in O(1) time. Thus the copies of a map share
+ * all the subtrees which have not been changed since they were copied,
+ * and {@link #equals} skips the shared subtrees without looking into them.
+ * <p>
+ * This map does not permit null keys or null values.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * Root of the trie, or null if this map is empty.
+     */
+    private Node root;
+
+    private int size;
+
+    public PersistentMap() {
+    }
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return a copy of this map, which shares the trie with this map.
+     */
+    public PersistentMap<K, V> copy() {
+        return new PersistentMap<>(root, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return key == null || root == null ? null :
+                (V) root.get(key, hash(key), 0);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        Change change = new Change();
+        Node newRoot = root == null ?
+                new Node(0, new Object[0]).put(key, value, hash(key), 0, change) :
+                root.put(key, value, hash(key), 0, change);
+        root = newRoot;
+        if (change.oldValue == null) {
+            ++size;
+        }
+        return (V) change.oldValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (key == null || root == null) {
+            return null;
+        }
+        Change change = new Change();
+        root = root.remove(key, hash(key), 0, change);
+        if (change.oldValue != null) {
+            --size;
+        }
+        return (V) change.oldValue;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof PersistentMap<?, ?> that) {
+            if (size != that.size) {
+                return false;
+            }
+            return root == that.root || size == 0 ||
+                    includes(that.root, root, 0);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * @return true if every mapping in {@code sub} is also in {@code sup},
+     * where both nodes are at the same level of the trie.
+     */
+    private static boolean includes(Node sup, Node sub, int shift) {
+        if (sup == sub) {
+            return true;
+        }
+        if (!sub.isCollision() && !sup.isCollision()) {
+            // compares the nodes slot by slot, which skips the shared subtrees
+            for (int i = 0; i < sub.array.length; i += 2) {
+                Object key = sub.array[i];
+                Object value = sub.array[i + 1];
+                if (key == null) {
+                    Node subChild = (Node) value;
+                    Object supSlot = sup.findSlot(subChild.firstHash(), shift);
+                    if (supSlot instanceof Node supChild) {
+                        if (!includes(supChild, subChild, shift + BITS)) {
+                            return false;
+                        }
+                    } else if (!containsAll(sup, subChild, shift)) {
+                        return false;
+                    }
+                } else if (!value.equals(sup.get(key, hash(key), shift))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return containsAll(sup, sub, shift);
+    }
+
+    /**
+     * @return true if every mapping in {@code sub} is also in {@code sup},
+     * where {@code sup} is at the given level of the trie.
+     */
+    private static boolean containsAll(Node sup, Node sub, int shift) {
+        for (int i = 0; i < sub.array.length; i += 2) {
+            Object key = sub.array[i];
+            Object value = sub.array[i + 1];
+            if (key == null) {
+                if (!containsAll(sup, (Node) value, shift)) {
+                    return false;
+                }
+            } else if (!value.equals(sup.get(key, hash(key), shift))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records the value replaced or removed by an operation on the trie.
+     */
+    private static class Change {
+
+        private Object oldValue;
+    }
+
+    /**
+     * Node of the trie. The slots of a node are stored in {@link #array}
+     * as key-value pairs; a pair whose key is null holds a child node
+     * as its value.
+     * <p>
+     * A bitmap node ({@code bitmap != 0}) has one slot for each 5-bit chunk
+     * of the hashes at its level which is set in {@code bitmap}.
+     * A collision node ({@code bitmap == 0}) holds the entries whose keys
+     * have exactly the same hash, so it has no child nodes.
+     */
+    private static class Node {
+
+        private final int bitmap;
+
+        private final Object[] array;
+
+        private Node(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private boolean isCollision() {
+            return bitmap == 0 && array.length > 0;
+        }
+
+        private int index(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        /**
+         * @return the hash of an arbitrary key in this subtree.
+         */
+        private int firstHash() {
+            Object key = array[0];
+            return key != null ? hash(key) : ((Node) array[1]).firstHash();
+        }
+
+        /**
+         * @return the key (or the child node if the key is null) of the slot
+         * for given hash in this bitmap node, or null if the slot is absent.
+         */
+        private Object findSlot(int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int idx = index(bit);
+            return array[idx] != null ? array[idx] : array[idx + 1];
+        }
+
+        private Object get(Object key, int hash, int shift) {
+            if (isCollision()) {
+                for (int i = 0; i < array.length; i += 2) {
+                    if (key.equals(array[i])) {
+                        return array[i + 1];
+                    }
+                }
+                return null;
+            }
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int idx = index(bit);
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) {
+                return ((Node) v).get(key, hash, shift + BITS);
+            }
+            return key.equals(k) ? v : null;
+        }
+
+        private Node put(Object key, Object value, int hash, int shift,
+                         Change change) {
+            if (isCollision()) {
+                return putCollision(key, value, hash, shift, change);
+            }
+            int bit = bit(hash, shift);
+            int idx = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, idx);
+                newArray[idx] = key;
+                newArray[idx + 1] = value;
+                System.arraycopy(array, idx, newArray, idx + 2, array.length - idx);
+                return new Node(bitmap | bit, newArray);
+            }
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) {
+                Node child = (Node) v;
+                Node newChild = child.put(key, value, hash, shift + BITS, change);
+                return newChild == child ? this : with(idx + 1, newChild);
+            }
+            if (key.equals(k)) {
+                change.oldValue = v;
+                return value.equals(v) ? this : with(idx + 1, value);
+            }
+            Node child = merge(k, v, hash(k), key, value, hash, shift + BITS);
+            Node node = with(idx, null);
+            node.array[idx + 1] = child;
+            return node;
+        }
+
+        private Node putCollision(Object key, Object value, int hash, int shift,
+                                  Change change) {
+            int collisionHash = hash(array[0]);
+            if (hash != collisionHash) {
+                // moves this collision node one level down
+                return new Node(bit(collisionHash, shift), new Object[]{ null, this })
+                        .put(key, value, hash, shift, change);
+            }
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    change.oldValue = array[i + 1];
+                    return value.equals(array[i + 1]) ? this : with(i + 1, value);
+                }
+            }
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, array.length);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            return new Node(0, newArray);
+        }
+
+        /**
+         * @return the node after removing given key, or null if
+         * the node becomes empty.
+         */
+        private Node remove(Object key, int hash, int shift, Change change) {
+            if (isCollision()) {
+                for (int i = 0; i < array.length; i += 2) {
+                    if (key.equals(array[i])) {
+                        change.oldValue = array[i + 1];
+                        return array.length == 2 ? null : new Node(0, without(i));
+                    }
+                }
+                return this;
+            }
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int idx = index(bit);
+            Object k = array[idx];
+            Object v = array[idx + 1];
+            if (k == null) {
+                Node child = (Node) v;
+                Node newChild = child.remove(key, hash, shift + BITS, change);
+                if (newChild == child) {
+                    return this;
+                } else if (newChild != null) {
+                    return with(idx + 1, newChild);
+                }
+            } else if (!key.equals(k)) {
+                return this;
+            } else {
+                change.oldValue = v;
+            }
+            return bitmap == bit ? null : new Node(bitmap ^ bit, without(idx));
+        }
+
+        /**
+         * @return a copy of this node whose given array slot is replaced.
+         */
+        private Node with(int i, Object o) {
+            Object[] newArray = array.clone();
+            newArray[i] = o;
+            return new Node(bitmap, newArray);
+        }
+
+        /**
+         * @return a copy of the array without the pair at given index.
+         */
+        private Object[] without(int i) {
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return newArray;
+        }
+
+        private static Node merge(Object k1, Object v1, int h1,
+                                  Object k2, Object v2, int h2, int shift) {
+            if (h1 == h2) {
+                return new Node(0, new Object[]{ k1, v1, k2, v2 });
+            }
+            int b1 = bit(h1, shift);
+            int b2 = bit(h2, shift);
+            if (b1 == b2) {
+                return new Node(b1, new Object[]{
+                        null, merge(k1, v1, h1, k2, v2, h2, shift + BITS) });
+            }
+            return Integer.compareUnsigned(b1, b2) < 0 ?
+                    new Node(b1 | b2, new Object[]{ k1, v1, k2, v2 }) :
+                    new Node(b1 | b2, new Object[]{ k2, v2, k1, v1 });
+        }
+    }
+
+    /**
+     * Iterates over the trie captured when the iterator is created,
+     * so that removing entries during iteration is safe.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+
+        private final Deque<Integer> positions = new ArrayDeque<>();
+
+        private Entry<K, V> next;
+
+        private K lastKey;
+
+        private EntryIterator() {
+            if (root != null) {
+                arrays.push(root.array);
+                positions.push(0);
+            }
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (!arrays.isEmpty()) {
+                Object[] array = arrays.peek();
+                int pos = positions.pop();
+                if (pos >= array.length) {
+                    arrays.pop();
+                    continue;
+                }
+                positions.push(pos + 2);
+                if (array[pos] == null) {
+                    arrays.push(((Node) array[pos + 1]).array);
+                    positions.push(0);
+                } else {
+                    next = new SimpleImmutableEntry<>(
+                            (K) array[pos], (V) array[pos + 1]);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> entry = next;
+            lastKey = entry.getKey();
+            advance();
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            PersistentMap.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+
+import java.util.BitSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Work-list solver which works on the {@link BlockCFG} of the CFG,
+ * i.e., it keeps the facts only at the boundaries of basic blocks, and
+ * transfers a fact through a block by composing the transfer functions
+ * of the nodes in the block. The facts of the nodes are materialized
+ * on demand when they are queried from the {@link DataflowResult}.
+ * <p>
+ * The facts inside the blocks are computed by transferring into fresh
+ * initial facts, thus this solver requires the transfer functions of
+ * the analysis to compute the output fact from the input fact only.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+class BlockWorkListSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    /**
+     * Whether to poll the blocks by the {@link NodeOrder} of their
+     * first (last) nodes for forward (backward) analyses,
+     * or in first-in-first-out order.
+     */
+    private final boolean ordered;
+
+    BlockWorkListSolver(DataflowAnalysis<Node, Fact> analysis, boolean ordered) {
+        super(analysis);
+        this.ordered = ordered;
+    }
+
+    @Override
+    public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
+        if (analysis.isConditional()) {
+            // conditional analyses prune the edges between nodes,
+            // which may be inside the blocks
+            return new WorkListSolver<>(analysis, ordered).solve(cfg);
+        }
+        long start = System.nanoTime();
+        BlockResult result = new BlockResult(new BlockCFG<>(cfg));
+        if (analysis.isForward()) {
+            doSolveForward(cfg, result);
+        } else {
+            doSolveBackward(cfg, result);
+        }
+        result.getStats().addWallTime(System.nanoTime() - start);
+        result.countFactSizes();
+        return result;
+    }
+
+    /**
+     * @return the node which represents given block in the work-list,
+     * i.e., the node where the analysis enters the block.
+     */
+    private Node getRepresentative(BasicBlock<Node> block) {
+        return analysis.isForward() ? block.getFirst() : block.getLast();
+    }
+
+    /**
+     * @return a new work-list which contains all blocks except the boundary
+     * block, i.e., the entry (exit) block for forward (backward) analyses.
+     */
+    private Queue<Node> newWorkList(BlockCFG<Node> blockCFG) {
+        BasicBlock<Node> boundary = analysis.isForward() ?
+                blockCFG.getEntry() : blockCFG.getExit();
+        List<Node> nodes = blockCFG.getBlocks()
+                .stream()
+                .filter(block -> block != boundary)
+                .map(this::getRepresentative)
+                .toList();
+        if (ordered) {
+            Queue<Node> workList = new OrderedWorkList<>(
+                    NodeOrder.get(blockCFG.getCFG()), analysis.isForward());
+            workList.addAll(nodes);
+            return workList;
+        } else {
+            return new LinkedList<>(nodes);
+        }
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockResult blockResult = (BlockResult) result;
+        BlockCFG<Node> blockCFG = blockResult.blockCFG;
+        SolverStats stats = result.getStats();
+        Queue<Node> workList = newWorkList(blockCFG);
+        stats.updateWorkListSize(workList.size());
+        while (!workList.isEmpty()) {
+            BasicBlock<Node> block = blockCFG.getBlockOf(workList.poll());
+            stats.countNodeVisit();
+            Fact in = analysis.newInitialFact(cfg);
+            for (BasicBlock<Node> pred : blockCFG.getPredsOf(block)) {
+                stats.countMeet();
+                analysis.meetInto(blockResult.getBlockOutFact(pred), in);
+            }
+            blockResult.setBlockInFact(block, in);
+            List<Node> nodes = block.getNodes();
+            Fact fact = in;
+            for (int i = 0; i < nodes.size() - 1; ++i) {
+                Fact out = analysis.newInitialFact(cfg);
+                stats.countTransfer();
+                analysis.transferNode(nodes.get(i), fact, out);
+                fact = out;
+            }
+            stats.countTransfer();
+            if (analysis.transferNode(block.getLast(), fact,
+                    blockResult.getBlockOutFact(block))) {
+                blockCFG.getSuccsOf(block)
+                        .forEach(succ -> workList.add(getRepresentative(succ)));
+                stats.updateWorkListSize(workList.size());
+            }
+        }
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        BlockResult blockResult = (BlockResult) result;
+        BlockCFG<Node> blockCFG = blockResult.blockCFG;
+        SolverStats stats = result.getStats();
+        Queue<Node> workList = newWorkList(blockCFG);
+        stats.updateWorkListSize(workList.size());
+        while (!workList.isEmpty()) {
+            BasicBlock<Node> block = blockCFG.getBlockOf(workList.poll());
+            stats.countNodeVisit();
+            Fact out = analysis.newInitialFact(cfg);
+            for (BasicBlock<Node> succ : blockCFG.getSuccsOf(block)) {
+                stats.countMeet();
+                analysis.meetInto(blockResult.getBlockInFact(succ), out);
+            }
+            blockResult.setBlockOutFact(block, out);
+            List<Node> nodes = block.getNodes();
+            Fact fact = out;
+            for (int i = nodes.size() - 1; i > 0; --i) {
+                Fact in = analysis.newInitialFact(cfg);
+                stats.countTransfer();
+                analysis.transferNode(nodes.get(i), in, fact);
+                fact = in;
+            }
+            stats.countTransfer();
+            if (analysis.transferNode(block.getFirst(),
+                    blockResult.getBlockInFact(block), fact)) {
+                blockCFG.getPredsOf(block)
+                        .forEach(pred -> workList.add(getRepresentative(pred)));
+                stats.updateWorkListSize(workList.size());
+            }
+        }
+    }
+
+    /**
+     * Data-flow result which keeps the facts of the blocks, and
+     * materializes the facts of all nodes in a block when the fact
+     * of any node in the block is queried for the first time.
+     */
+    private class BlockResult extends DataflowResult<Node, Fact> {
+
+        private final BlockCFG<Node> blockCFG;
+
+        private final Object[] blockInFacts;
+
+        private final Object[] blockOutFacts;
+
+        /**
+         * Facts of the nodes in the materialized blocks.
+         */
+        private final DataflowResult<Node, Fact> nodeFacts;
+
+        private final BitSet materialized;
+
+        private BlockResult(BlockCFG<Node> blockCFG) {
+            this.blockCFG = blockCFG;
+            CFG<Node> cfg = blockCFG.getCFG();
+            int size = blockCFG.getNumberOfNodes();
+            blockInFacts = new Object[size];
+            blockOutFacts = new Object[size];
+            for (BasicBlock<Node> block : blockCFG.getBlocks()) {
+                setBlockInFact(block, analysis.newInitialFact(cfg));
+                setBlockOutFact(block, analysis.newInitialFact(cfg));
+            }
+            if (analysis.isForward()) {
+                setBlockOutFact(blockCFG.getEntry(), analysis.newBoundaryFact(cfg));
+            } else {
+                setBlockInFact(blockCFG.getExit(), analysis.newBoundaryFact(cfg));
+            }
+            nodeFacts = newResult(cfg);
+            materialized = new BitSet(size);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Fact getBlockInFact(BasicBlock<Node> block) {
+            return (Fact) blockInFacts[block.getIndex()];
+        }
+
+        private void setBlockInFact(BasicBlock<Node> block, Fact fact) {
+            blockInFacts[block.getIndex()] = fact;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Fact getBlockOutFact(BasicBlock<Node> block) {
+            return (Fact) blockOutFacts[block.getIndex()];
+        }
+
+        private void setBlockOutFact(BasicBlock<Node> block, Fact fact) {
+            blockOutFacts[block.getIndex()] = fact;
+        }
+
+        /**
+         * Counts the sizes of the facts at the exits of the blocks,
+         * without materializing the facts of the nodes.
+         */
+        private void countFactSizes() {
+            for (BasicBlock<Node> block : blockCFG.getBlocks()) {
+                getStats().countFactSize(analysis.isForward() ?
+                        getBlockOutFact(block) : getBlockInFact(block));
+            }
+        }
+
+        private void materialize(Node node) {
+            BasicBlock<Node> block = blockCFG.getBlockOf(node);
+            if (materialized.get(block.getIndex())) {
+                return;
+            }
+            materialized.set(block.getIndex());
+            CFG<Node> cfg = blockCFG.getCFG();
+            List<Node> nodes = block.getNodes();
+            if (analysis.isForward()) {
+                Fact fact = getBlockInFact(block);
+                for (int i = 0; i < nodes.size(); ++i) {
+                    Node n = nodes.get(i);
+                    Fact out;
+                    if (i == nodes.size() - 1) {
+                        out = getBlockOutFact(block);
+                    } else {
+                        out = analysis.newInitialFact(cfg);
+                        analysis.transferNode(n, fact, out);
+                    }
+                    nodeFacts.setInFact(n, fact);
+                    nodeFacts.setOutFact(n, out);
+                    fact = out;
+                }
+            } else {
+                Fact fact = getBlockOutFact(block);
+                for (int i = nodes.size() - 1; i >= 0; --i) {
+                    Node n = nodes.get(i);
+                    Fact in;
+                    if (i == 0) {
+                        in = getBlockInFact(block);
+                    } else {
+                        in = analysis.newInitialFact(cfg);
+                        analysis.transferNode(n, in, fact);
+                    }
+                    nodeFacts.setInFact(n, in);
+                    nodeFacts.setOutFact(n, fact);
+                    fact = in;
+                }
+            }
+        }
+
+        @Override
+        public Fact getInFact(Node node) {
+            materialize(node);
+            return nodeFacts.getInFact(node);
+        }
+
+        @Override
+        public void setInFact(Node node, Fact fact) {
+            materialize(node);
+            nodeFacts.setInFact(node, fact);
+        }
+
+        @Override
+        public Fact getOutFact(Node node) {
+            materialize(node);
+            return nodeFacts.getOutFact(node);
+        }
+
+        @Override
+        public void setOutFact(Node node, Fact fact) {
+            materialize(node);
+            nodeFacts.setOutFact(node, fact);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import java.util.AbstractQueue;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Work-list which polls the pending nodes by the {@link NodeOrder} of
+ * the CFG, i.e., reverse postorder for forward analyses, and postorder
+ * for backward analyses. The pending nodes are kept in a bit set over
+ * the node numbers, thus each node is kept at most once in the work-list.
+ *
+ * @param <Node> type of CFG nodes
+ */
+class OrderedWorkList<Node> extends AbstractQueue<Node> {
+
+    private final NodeOrder<Node> order;
+
+    private final boolean isForward;
+
+    private final BitSet pending;
+
+    OrderedWorkList(NodeOrder<Node> order, boolean isForward) {
+        this.order = order;
+        this.isForward = isForward;
+        this.pending = new BitSet(order.size());
+    }
+
+    /**
+     * Converts between node numbers and positions in {@link #pending}.
+     * The conversion is its own inverse.
+     */
+    private int toPosition(int number) {
+        return isForward ? number : order.size() - 1 - number;
+    }
+
+    /**
+     * Adds a node to this work-list if it is not pending yet.
+     *
+     * @return true if this work-list changed as a result of the call,
+     * otherwise false.
+     */
+    @Override
+    public boolean add(Node node) {
+        return offer(node);
+    }
+
+    @Override
+    public boolean offer(Node node) {
+        int pos = toPosition(order.getNumber(node));
+        if (pending.get(pos)) {
+            return false;
+        }
+        pending.set(pos);
+        return true;
+    }
+
+    @Override
+    public Node poll() {
+        int pos = pending.nextSetBit(0);
+        if (pos < 0) {
+            return null;
+        }
+        pending.clear(pos);
+        return order.getNode(toPosition(pos));
+    }
+
+    @Override
+    public Node peek() {
+        int pos = pending.nextSetBit(0);
+        return pos < 0 ? null : order.getNode(toPosition(pos));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return pending.cardinality();
+    }
+
+    @Override
+    public Iterator<Node> iterator() {
+        return new Iterator<>() {
+
+            private int pos = pending.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return pos >= 0;
+            }
+
+            @Override
+            public Node next() {
+                if (pos < 0) {
+                    throw new NoSuchElementException();
+                }
+                Node node = order.getNode(toPosition(pos));
+                pos = pending.nextSetBit(pos + 1);
+                return node;
+            }
+        };
+    }
+}
@@ -25,33 +25,72 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.util.collection.Sets;
 
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 
 class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
 
+    /**
+     * Whether to poll the nodes by {@link NodeOrder} (and keep each node
+     * at most once in the work-list), or in first-in-first-out order.
+     */
+    private final boolean ordered;
+
     WorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+        this(analysis, false);
+    }
+
+    WorkListSolver(DataflowAnalysis<Node, Fact> analysis, boolean ordered) {
         super(analysis);
+        this.ordered = ordered;
+    }
+
+    /**
+     * @return a new work-list which contains given nodes of the CFG.
+     */
+    private Queue<Node> newWorkList(CFG<Node> cfg, Collection<Node> nodes) {
+        if (ordered) {
+            Queue<Node> workList = new OrderedWorkList<>(
+                    NodeOrder.get(cfg), analysis.isForward());
+            workList.addAll(nodes);
+            return workList;
+        } else {
+            return new LinkedList<>(nodes);
+        }
     }
 
     @Override
     protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        if (analysis.isConditional()) {
+            doSolveConditional(cfg, result);
+            return;
+        }
         // TODO - finish me
-        List<Node> workList = new LinkedList<>(cfg.getNodes());
+        SolverStats stats = result.getStats();
+        Queue<Node> workList = newWorkList(cfg, cfg.getNodes());
+        stats.updateWorkListSize(workList.size());
         while (!workList.isEmpty()) {
-            Node node = workList.remove(0);
+            Node node = workList.poll();
+            stats.countNodeVisit();
             Fact out = result.getOutFact(node);
-            Fact in = analysis.newInitialFact();
+            Fact in = analysis.newInitialFact(cfg);
             for (Node pred : cfg.getPredsOf(node)) {
                 Fact pred_out = result.getOutFact(pred);
                 //取并是不包括上一次迭代的in值的
+                stats.countMeet();
                 analysis.meetInto(pred_out,in);
             }
             result.setInFact(node, in);
+            stats.countTransfer();
             if (analysis.transferNode(node, in, out)) {
                 workList.addAll(cfg.getSuccsOf(node));
+                stats.updateWorkListSize(workList.size());
             }
         }
     }
@@ -59,21 +98,67 @@ class WorkListSolver<Node, Fact> extends Solver<Node, Fact> {
     @Override
     protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
         // TODO - finish me
-        List<Node> workList = new LinkedList<>(cfg.getNodes());
+        SolverStats stats = result.getStats();
+        Queue<Node> workList = newWorkList(cfg, cfg.getNodes());
+        stats.updateWorkListSize(workList.size());
         while (!workList.isEmpty()) {
-            Node node = workList.remove(0);
+            Node node = workList.poll();
+            stats.countNodeVisit();
             Fact in = result.getInFact(node);
-            Fact out = analysis.newInitialFact();
+            Fact out = analysis.newInitialFact(cfg);
             for (Node succ : cfg.getSuccsOf(node)) {
                 Fact fact = result.getInFact(succ);
                 //取并是不包括上一次迭代的in值的
+                stats.countMeet();
                 analysis.meetInto(fact, out);
             }
             result.setOutFact(node, out);
+            stats.countTransfer();
             if(analysis.transferNode(node, in, out)) {
                 workList.addAll(cfg.getPredsOf(node));
+                stats.updateWorkListSize(workList.size());
             };
 
         }
     }
+
+    /**
+     * Solves conditional forward analyses. Starting from the entry, only
+     * the edges which are feasible under the out facts of their sources
+     * are taken, i.e., a node is visited only after any of its in edges
+     * becomes executable, and only the facts along the executable edges
+     * are met into its in fact. The executable edges are recorded
+     * in the result.
+     */
+    private void doSolveConditional(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        SolverStats stats = result.getStats();
+        Set<Edge<Node>> executableEdges = Sets.newSet();
+        Queue<Node> workList = newWorkList(cfg, List.of(cfg.getEntry()));
+        stats.updateWorkListSize(workList.size());
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            stats.countNodeVisit();
+            Fact in = analysis.newInitialFact(cfg);
+            for (Edge<Node> inEdge : cfg.getInEdgesOf(node)) {
+                if (executableEdges.contains(inEdge)) {
+                    stats.countMeet();
+                    analysis.meetInto(result.getOutFact(inEdge.getSource()), in);
+                }
+            }
+            result.setInFact(node, in);
+            Fact out = result.getOutFact(node);
+            stats.countTransfer();
+            boolean changed = analysis.transferNode(node, in, out);
+            for (Edge<Node> outEdge : cfg.getOutEdgesOf(node)) {
+                // the target must be (re-)visited when the edge
+                // becomes executable, or when the out fact changes
+                if (analysis.isFeasible(outEdge, out) &&
+                        (executableEdges.add(outEdge) || changed)) {
+                    workList.add(outEdge.getTarget());
+                }
+            }
+            stats.updateWorkListSize(workList.size());
+        }
+        result.setExecutableEdges(executableEdges);
+    }
 }
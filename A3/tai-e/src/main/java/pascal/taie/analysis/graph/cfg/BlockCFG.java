@@ -0,0 +1,193 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.Graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Basic-block view of a {@link CFG}, which collapses the straight-line
+ * chains of CFG nodes into {@link BasicBlock}s. The entry and the exit
+ * of the CFG are always in separate blocks on their own, so that
+ * the boundary facts of data-flow analyses stay on their own blocks.
+ *
+ * @param <N> type of CFG nodes
+ */
+public class BlockCFG<N> implements Graph<BasicBlock<N>> {
+
+    private final CFG<N> cfg;
+
+    private final List<BasicBlock<N>> blocks = new ArrayList<>();
+
+    private final Map<N, BasicBlock<N>> blockOf;
+
+    private final List<Set<BasicBlock<N>>> preds = new ArrayList<>();
+
+    private final List<Set<BasicBlock<N>>> succs = new ArrayList<>();
+
+    public BlockCFG(CFG<N> cfg) {
+        this.cfg = cfg;
+        this.blockOf = Maps.newMap(cfg.getNumberOfNodes());
+        buildBlocks();
+        buildEdges();
+    }
+
+    public CFG<N> getCFG() {
+        return cfg;
+    }
+
+    /**
+     * @return the block containing the entry of the CFG.
+     */
+    public BasicBlock<N> getEntry() {
+        return getBlockOf(cfg.getEntry());
+    }
+
+    /**
+     * @return the block containing the exit of the CFG.
+     */
+    public BasicBlock<N> getExit() {
+        return getBlockOf(cfg.getExit());
+    }
+
+    /**
+     * @return the block containing given CFG node.
+     */
+    public BasicBlock<N> getBlockOf(N node) {
+        return blockOf.get(node);
+    }
+
+    /**
+     * @return all blocks, indexed by {@link BasicBlock#getIndex()}.
+     */
+    public List<BasicBlock<N>> getBlocks() {
+        return Collections.unmodifiableList(blocks);
+    }
+
+    @Override
+    public boolean hasNode(BasicBlock<N> block) {
+        return block.getIndex() < blocks.size() &&
+                blocks.get(block.getIndex()) == block;
+    }
+
+    @Override
+    public boolean hasEdge(BasicBlock<N> source, BasicBlock<N> target) {
+        return getSuccsOf(source).contains(target);
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getPredsOf(BasicBlock<N> block) {
+        return Collections.unmodifiableSet(preds.get(block.getIndex()));
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getSuccsOf(BasicBlock<N> block) {
+        return Collections.unmodifiableSet(succs.get(block.getIndex()));
+    }
+
+    @Override
+    public Set<BasicBlock<N>> getNodes() {
+        return Set.copyOf(blocks);
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return blocks.size();
+    }
+
+    private boolean isLeader(N node) {
+        if (cfg.isEntry(node) || cfg.isExit(node)) {
+            return true;
+        }
+        Set<N> nodePreds = cfg.getPredsOf(node);
+        if (nodePreds.size() != 1) {
+            return true;
+        }
+        N pred = nodePreds.iterator().next();
+        return pred == node || cfg.isEntry(pred) ||
+                cfg.getSuccsOf(pred).size() != 1;
+    }
+
+    private void buildBlocks() {
+        for (N node : cfg) {
+            if (isLeader(node)) {
+                addBlock(node);
+            }
+        }
+        // the remaining nodes are on cycles without any leaders,
+        // e.g., unreachable loops, then any of them can start a block
+        for (N node : cfg) {
+            if (!blockOf.containsKey(node)) {
+                addBlock(node);
+            }
+        }
+    }
+
+    /**
+     * Adds a block which starts from given leader and extends along
+     * the single successors until the next leader.
+     */
+    private void addBlock(N leader) {
+        List<N> nodes = new ArrayList<>();
+        N node = leader;
+        while (true) {
+            nodes.add(node);
+            if (cfg.isEntry(node) || cfg.isExit(node)) {
+                break;
+            }
+            Set<N> nodeSuccs = cfg.getSuccsOf(node);
+            if (nodeSuccs.size() != 1) {
+                break;
+            }
+            N succ = nodeSuccs.iterator().next();
+            if (blockOf.containsKey(succ) || succ == leader ||
+                    isLeader(succ)) {
+                break;
+            }
+            node = succ;
+        }
+        BasicBlock<N> block = new BasicBlock<>(blocks.size(), nodes);
+        blocks.add(block);
+        nodes.forEach(n -> blockOf.put(n, block));
+    }
+
+    private void buildEdges() {
+        for (BasicBlock<N> block : blocks) {
+            Set<BasicBlock<N>> blockPreds = Sets.newHybridSet();
+            cfg.getPredsOf(block.getFirst())
+                    .forEach(pred -> blockPreds.add(blockOf.get(pred)));
+            preds.add(blockPreds);
+            Set<BasicBlock<N>> blockSuccs = Sets.newHybridSet();
+            cfg.getSuccsOf(block.getLast())
+                    .forEach(succ -> blockSuccs.add(blockOf.get(succ)));
+            succs.add(blockSuccs);
+        }
+    }
+}
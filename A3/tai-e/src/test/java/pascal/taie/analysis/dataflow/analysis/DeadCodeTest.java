@@ -58,4 +58,49 @@ public class DeadCodeTest {
     public void testLoops() {
         testDCD("Loops");
     }
+
+    @Test
+    public void testDeadAssignmentWithBitVector() {
+        Tests.test("DeadAssignment", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;bit-vector:true",
+                "-a", "constprop=edge-refine:false");
+    }
+
+    @Test
+    public void testLoopsWithBasicBlocks() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;basic-block:true",
+                "-a", "constprop=edge-refine:false;basic-block:true");
+    }
+
+    @Test
+    public void testUnreachableSwitchBranchWithPrimitiveFact() {
+        Tests.test("UnreachableSwitchBranch", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;primitive-fact:true");
+    }
+
+    @Test
+    public void testUnreachableIfBranchWithEdgeRefine() {
+        Tests.test("UnreachableIfBranch", "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:true");
+    }
+
+    @Test
+    public void testLoopsWholeProgram() {
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                ProgramDeadCodeDetection.ID);
+    }
+
+    @Test
+    public void testLoopsWholeProgramSingleThread() {
+        // the same results as the parallel run above
+        Tests.test("Loops", "src/test/resources/dataflow/deadcode/",
+                ProgramDeadCodeDetection.ID, "parallelism:1");
+    }
 }
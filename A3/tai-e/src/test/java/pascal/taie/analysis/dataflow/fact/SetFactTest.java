@@ -0,0 +1,58 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SetFactTest {
+
+    private static Set<String> elements(SetFact<String> fact) {
+        return fact.stream().collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testEmptyFact() {
+        SetFact<String> fact = new SetFact<>();
+        assertTrue(fact.add("a"));
+        assertTrue(fact.union(new SetFact<>(List.of("b"))));
+        assertEquals(Set.of("a", "b"), elements(fact));
+    }
+
+    @Test
+    public void testCopy() {
+        SetFact<String> fact = new SetFact<>(List.of("a"));
+        SetFact<String> copy = fact.copy();
+        copy.add("b");
+        assertEquals(Set.of("a"), elements(fact));
+        assertEquals(Set.of("a", "b"), elements(copy));
+        copy.remove("a");
+        assertTrue(fact.contains("a"));
+    }
+}
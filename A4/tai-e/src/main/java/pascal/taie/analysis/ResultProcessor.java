@@ -27,6 +27,8 @@ import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.graph.callgraph.CallGraph;
 import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.SolverStats;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IRPrinter;
 import pascal.taie.ir.stmt.Stmt;
@@ -68,6 +70,12 @@ public class ResultProcessor extends ProgramAnalysis {
 
     private static final Logger logger = LogManager.getLogger(ResultProcessor.class);
 
+    /**
+     * Number of the most time-consuming methods whose solver statistics
+     * are logged for each analysis.
+     */
+    private static final int TOP_METHODS = 5;
+
     private final String action;
 
     private PrintStream out;
@@ -103,6 +111,9 @@ public class ResultProcessor extends ProgramAnalysis {
         if (groups.containsKey(false)) {
             processIntraResults(groups.get(false));
         }
+        if (getOptions().getBooleanOrDefault("solver-stats", false)) {
+            groups.values().forEach(this::logSolverStats);
+        }
         if (getOptions().getBoolean("log-mismatches")) {
             mismatches.forEach(logger::info);
         }
@@ -200,6 +211,47 @@ public class ResultProcessor extends ProgramAnalysis {
         processResults(methods, analyses, (m, id) -> m.getIR().getResult(id));
     }
 
+    /**
+     * Logs the {@link SolverStats} of the given analyses whose results
+     * are {@link DataflowResult}s. For intra-procedural analyses, the
+     * statistics are summarized over all application methods, followed
+     * by the statistics of the most time-consuming methods.
+     */
+    private void logSolverStats(List<String> analyses) {
+        List<JMethod> methods = World.get()
+                .getClassHierarchy()
+                .applicationClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(Collection::stream)
+                .filter(m -> !m.isAbstract() && !m.isNative())
+                .toList();
+        for (String id : analyses) {
+            if (World.get().getResult(id) instanceof DataflowResult<?, ?> result) {
+                logger.info("Solver stats of {}: {}", id, result.getStats());
+                continue;
+            }
+            SolverStats total = new SolverStats();
+            Map<JMethod, SolverStats> methodStats = Maps.newMap();
+            for (JMethod method : methods) {
+                if (method.getIR().getResult(id) instanceof DataflowResult<?, ?> result) {
+                    total.add(result.getStats());
+                    methodStats.put(method, result.getStats());
+                }
+            }
+            if (methodStats.isEmpty()) {
+                continue;
+            }
+            logger.info("Solver stats of {} ({} methods): {}",
+                    id, methodStats.size(), total);
+            methodStats.entrySet()
+                    .stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<JMethod, SolverStats> e) ->
+                            e.getValue().getWallTime()).reversed())
+                    .limit(TOP_METHODS)
+                    .forEach(e -> logger.info("  {}: {}", e.getKey(), e.getValue()));
+        }
+    }
+
     private void processResults(Stream<JMethod> methods, List<String> analyses,
                                 BiFunction<JMethod, String, ?> resultGetter) {
         methods.forEach(method ->
@@ -23,6 +23,7 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.PersistentMap;
 import pascal.taie.ir.exp.Var;
 
 import java.util.Collections;
@@ -48,6 +49,18 @@ public class CPFact extends MapFact<Var, Value> {
         super(map);
     }
 
+    private CPFact(PersistentMap<Var, Value> map) {
+        super(map);
+    }
+
+    /**
+     * @return a new empty CPFact backed by a {@link PersistentMap},
+     * whose copies share unchanged mappings with it.
+     */
+    public static CPFact newPersistentFact() {
+        return new CPFact(new PersistentMap<>());
+    }
+
     /**
      * @return the value of given variable in this fact,
      * or UNDEF the variable is absent in this fact.
@@ -71,6 +84,8 @@ public class CPFact extends MapFact<Var, Value> {
 
     @Override
     public CPFact copy() {
-        return new CPFact(this.map);
+        return map instanceof PersistentMap<Var, Value> persistentMap ?
+                new CPFact(persistentMap.copy()) :
+                new CPFact(this.map);
     }
 }
@@ -41,8 +41,15 @@ public class ConstantPropagation extends
 
     public static final String ID = "constprop";
 
+    /**
+     * Whether to back the facts by {@link pascal.taie.analysis.dataflow.fact.PersistentMap}s,
+     * so that copying a fact shares the mappings instead of copying them.
+     */
+    private final boolean persistentFact;
+
     public ConstantPropagation(AnalysisConfig config) {
         super(config);
+        persistentFact = getOptions().getBooleanOrDefault("persistent-fact", false);
     }
 
     @Override
@@ -53,7 +60,7 @@ public class ConstantPropagation extends
     @Override
     public CPFact newBoundaryFact(CFG<Stmt> cfg) {
         // TODO - finish me
-        CPFact fact = new CPFact();
+        CPFact fact = newFact();
         for (Var var : cfg.getIR().getVars()) {
             if (canHoldInt(var)) fact.update(var, Value.getUndef());
         }
@@ -69,7 +76,14 @@ public class ConstantPropagation extends
     @Override
     public CPFact newInitialFact() {
         // TODO - finish me
-        return new CPFact();
+        return newFact();
+    }
+
+    /**
+     * @return a new empty fact of the kind selected by the options.
+     */
+    private CPFact newFact() {
+        return persistentFact ? CPFact.newPersistentFact() : new CPFact();
     }
 
     @Override
@@ -22,6 +22,8 @@
 
 package pascal.taie.analysis.dataflow.fact;
 
+import pascal.taie.analysis.dataflow.solver.SolverStats;
+
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -37,6 +39,8 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
 
     private final Map<Node, Fact> outFacts = new LinkedHashMap<>();
 
+    private final SolverStats stats = new SolverStats();
+
     /**
      * @return the flowing-in fact of given node.
      */
@@ -66,4 +70,11 @@ public class DataflowResult<Node, Fact> implements NodeResult<Node, Fact> {
     public void setOutFact(Node node, Fact fact) {
         outFacts.put(node, fact);
     }
+
+    /**
+     * @return the statistics of the solver run which produces this result.
+     */
+    public SolverStats getStats() {
+        return stats;
+    }
 }
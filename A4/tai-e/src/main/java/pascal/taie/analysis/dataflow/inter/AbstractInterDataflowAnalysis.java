@@ -33,6 +33,7 @@ import pascal.taie.analysis.graph.icfg.ICFGEdge;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 
 /**
  * Provides common functionalities for {@link InterDataflowAnalysis} implementations.
@@ -121,8 +122,22 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     public Object analyze() {
         icfg = World.get().getResult(ICFGBuilder.ID);
         initialize();
-        solver = new InterSolver<>(this, icfg);
-        DataflowResult<Node, Fact> result = solver.solve();
+        boolean tabulation = getOptions().getBooleanOrDefault("tabulation", false);
+        boolean parallel = getOptions().getBooleanOrDefault("parallel", false);
+        if (tabulation && parallel) {
+            throw new ConfigException("tabulation and parallel" +
+                    " cannot be enabled together");
+        }
+        DataflowResult<Node, Fact> result;
+        if (tabulation) {
+            result = new TabulationSolver<>(this, icfg).solve();
+        } else if (parallel) {
+            result = new ParallelInterSolver<>(this, icfg).solve();
+        } else {
+            solver = new InterSolver<>(this, icfg,
+                    getOptions().getString("worklist"));
+            result = solver.solve();
+        }
         finish();
         return result;
     }
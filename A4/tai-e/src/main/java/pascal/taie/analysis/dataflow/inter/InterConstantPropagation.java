@@ -55,7 +55,8 @@ public class InterConstantPropagation extends
 
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
-        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID,
+                "persistent-fact", getOptions().getBooleanOrDefault("persistent-fact", false)));
     }
 
     @Override
@@ -23,8 +23,10 @@
 package pascal.taie.analysis.dataflow.inter;
 
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.SolverStats;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.collection.SetQueue;
 
 import java.util.ArrayDeque;
@@ -47,16 +49,45 @@ class InterSolver<Method, Node, Fact> {
 
     private Queue<Node> workList;
 
+    /**
+     * Whether to poll the nodes by {@link InterWorkList},
+     * or in first-in-first-out order.
+     */
+    private final boolean ordered;
+
+    /**
+     * @param workList the work-list mode, which is either {@code "fifo"}
+     *                 (also used when {@code workList} is {@code null}), or
+     *                 {@code "scc"}, i.e., polling the nodes by the order
+     *                 given by {@link InterWorkList}
+     */
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
-                ICFG<Method, Node> icfg) {
+                ICFG<Method, Node> icfg, String workList) {
         this.analysis = analysis;
         this.icfg = icfg;
+        this.ordered = isOrdered(workList);
+    }
+
+    private static boolean isOrdered(String workList) {
+        if (workList == null) {
+            return false;
+        }
+        return switch (workList) {
+            case "fifo" -> false;
+            case "scc" -> true;
+            default -> throw new ConfigException(
+                    "Unknown work-list mode: " + workList);
+        };
     }
 
     DataflowResult<Node, Fact> solve() {
+        long start = System.nanoTime();
         result = new DataflowResult<>();
         initialize();
         doSolve();
+        SolverStats stats = result.getStats();
+        stats.addWallTime(System.nanoTime() - start);
+        icfg.forEach(node -> stats.countFactSize(result.getOutFact(node)));
         return result;
     }
 
@@ -78,10 +109,15 @@ class InterSolver<Method, Node, Fact> {
 
     private void doSolve() {
         // TODO - finish me
-        workList = new ArrayDeque<>();
+        SolverStats stats = result.getStats();
+        workList = ordered ?
+                new InterWorkList<>(icfg, analysis.isForward()) :
+                new ArrayDeque<>();
         workList.addAll(icfg.getNodes());
+        stats.updateWorkListSize(workList.size());
         while (!workList.isEmpty()) {
             Node node = workList.poll();
+            stats.countNodeVisit();
             Fact oldOut = result.getOutFact(node);
 
             Fact in = analysis.newInitialFact();
@@ -90,10 +126,15 @@ class InterSolver<Method, Node, Fact> {
                 Node pred = edge.getSource();
                 Fact predOut = result.getOutFact(pred);
                 Fact edgeOut = analysis.transferEdge(edge, predOut);
-                if(edgeOut != null) analysis.meetInto(edgeOut, in);
+                if(edgeOut != null) {
+                    stats.countMeet();
+                    analysis.meetInto(edgeOut, in);
+                }
             }
+            stats.countTransfer();
             if(analysis.transferNode(node, in, oldOut)) {
                 workList.addAll(icfg.getSuccsOf(node));
+                stats.updateWorkListSize(workList.size());
             };
 
         }
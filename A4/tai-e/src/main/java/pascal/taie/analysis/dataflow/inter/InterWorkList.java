@@ -0,0 +1,242 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopoSorter;
+
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Work-list of {@link InterSolver} which polls the pending nodes by
+ * a global order of the ICFG nodes. For forward analyses, the methods are
+ * ordered by the strongly connected components of the call graph from
+ * callers to callees (top-down), and the nodes of each method are ordered
+ * by reverse postorder of its control-flow graph. Backward analyses use
+ * the reverse order, i.e., bottom-up and postorder.
+ * <p>
+ * The pending nodes are kept in a bit set over the node numbers,
+ * thus each node is kept at most once in the work-list.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ */
+class InterWorkList<Method, Node> extends AbstractQueue<Node> {
+
+    /**
+     * Nodes in the order of polling.
+     */
+    private final List<Node> nodes;
+
+    /**
+     * Map from node to its index in {@link #nodes}.
+     */
+    private final Map<Node, Integer> numbers;
+
+    private final BitSet pending;
+
+    private int size;
+
+    InterWorkList(ICFG<Method, Node> icfg, boolean isForward) {
+        nodes = computeOrder(icfg);
+        if (!isForward) {
+            Collections.reverse(nodes);
+        }
+        numbers = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            numbers.put(nodes.get(i), i);
+        }
+        pending = new BitSet(nodes.size());
+    }
+
+    private static <Method, Node> List<Node> computeOrder(ICFG<Method, Node> icfg) {
+        Map<Method, List<Node>> methodNodes = Maps.newMap();
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        for (Node node : icfg) {
+            Method method = icfg.getContainingMethodOf(node);
+            methodNodes.computeIfAbsent(method, m -> {
+                callGraph.addNode(m);
+                return new ArrayList<>();
+            }).add(node);
+        }
+        for (Node node : icfg) {
+            if (icfg.isCallSite(node)) {
+                Method caller = icfg.getContainingMethodOf(node);
+                for (Method callee : icfg.getCalleesOf(node)) {
+                    if (methodNodes.containsKey(callee)) {
+                        callGraph.addEdge(caller, callee);
+                    }
+                }
+            }
+        }
+        List<Node> order = new ArrayList<>(icfg.getNumberOfNodes());
+        new TopoSorter<>(new MergedSCCGraph<>(callGraph))
+                .get()
+                .forEach(scc -> scc.getNodes().forEach(method ->
+                        order.addAll(computeReversePostorder(
+                                icfg, method, methodNodes.get(method)))));
+        return order;
+    }
+
+    /**
+     * @return the nodes of given method in reverse postorder of
+     * a depth-first traversal from the entry of the method. Nodes that
+     * are unreachable from the entry are traversed after the reachable ones.
+     */
+    private static <Method, Node> List<Node> computeReversePostorder(
+            ICFG<Method, Node> icfg, Method method, List<Node> methodNodes) {
+        List<Node> postorder = new ArrayList<>(methodNodes.size());
+        Set<Node> visited = Sets.newSet(methodNodes.size());
+        visit(icfg, method, icfg.getEntryOf(method), visited, postorder);
+        for (Node node : methodNodes) {
+            if (!visited.contains(node)) {
+                visit(icfg, method, node, visited, postorder);
+            }
+        }
+        Collections.reverse(postorder);
+        return postorder;
+    }
+
+    /**
+     * Iterative depth-first traversal which appends the nodes of given
+     * method reachable from {@code root} to {@code postorder} in postorder.
+     * The inter-procedural edges are not followed.
+     */
+    private static <Method, Node> void visit(
+            ICFG<Method, Node> icfg, Method method, Node root,
+            Set<Node> visited, List<Node> postorder) {
+        Deque<Node> nodeStack = new ArrayDeque<>();
+        Deque<Iterator<Node>> succStack = new ArrayDeque<>();
+        visited.add(root);
+        nodeStack.push(root);
+        succStack.push(getIntraSuccsOf(icfg, method, root));
+        while (!nodeStack.isEmpty()) {
+            Iterator<Node> succs = succStack.peek();
+            if (succs.hasNext()) {
+                Node succ = succs.next();
+                if (visited.add(succ)) {
+                    nodeStack.push(succ);
+                    succStack.push(getIntraSuccsOf(icfg, method, succ));
+                }
+            } else {
+                postorder.add(nodeStack.pop());
+                succStack.pop();
+            }
+        }
+    }
+
+    private static <Method, Node> Iterator<Node> getIntraSuccsOf(
+            ICFG<Method, Node> icfg, Method method, Node node) {
+        return icfg.getSuccsOf(node)
+                .stream()
+                .filter(succ -> method.equals(icfg.getContainingMethodOf(succ)))
+                .iterator();
+    }
+
+    /**
+     * Adds a node to this work-list if it is not pending yet.
+     *
+     * @return true if this work-list changed as a result of the call,
+     * otherwise false.
+     */
+    @Override
+    public boolean add(Node node) {
+        return offer(node);
+    }
+
+    @Override
+    public boolean offer(Node node) {
+        int number = numbers.get(node);
+        if (pending.get(number)) {
+            return false;
+        }
+        pending.set(number);
+        ++size;
+        return true;
+    }
+
+    @Override
+    public Node poll() {
+        int number = pending.nextSetBit(0);
+        if (number < 0) {
+            return null;
+        }
+        pending.clear(number);
+        --size;
+        return nodes.get(number);
+    }
+
+    @Override
+    public Node peek() {
+        int number = pending.nextSetBit(0);
+        return number < 0 ? null : nodes.get(number);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Node> iterator() {
+        return new Iterator<>() {
+
+            private int number = pending.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return number >= 0;
+            }
+
+            @Override
+            public Node next() {
+                if (number < 0) {
+                    throw new NoSuchElementException();
+                }
+                Node node = nodes.get(number);
+                number = pending.nextSetBit(number + 1);
+                return node;
+            }
+        };
+    }
+}
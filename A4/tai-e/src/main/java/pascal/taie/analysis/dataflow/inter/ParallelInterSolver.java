@@ -0,0 +1,265 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.SolverStats;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel solver for inter-procedural data-flow analysis.
+ * <p>
+ * The ICFG is partitioned by the containing methods of the nodes, and
+ * each partition is solved by its own work-list on a work-stealing pool.
+ * The facts of the nodes are only accessed by the partitions they belong
+ * to; the facts flowing along {@link CallEdge}s and {@link ReturnEdge}s
+ * are transferred by the partitions of the source nodes, and then sent to
+ * the inboxes of the partitions of the target nodes. Each partition is
+ * solved by at most one thread at a time.
+ * <p>
+ * As the transfer functions are monotone, the solver reaches the same
+ * fixed point as {@link InterSolver}, regardless of the order in which
+ * the partitions are solved. This requires the analysis to be free of
+ * shared mutable state, i.e., its transfer functions may be called by
+ * different threads concurrently.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <Fact>   type of data-flow facts
+ */
+class ParallelInterSolver<Method, Node, Fact> {
+
+    private final InterDataflowAnalysis<Node, Fact> analysis;
+
+    private final ICFG<Method, Node> icfg;
+
+    private final Map<Method, Partition> partitions = Maps.newMap();
+
+    /**
+     * Number of partitions which are scheduled or being solved.
+     */
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    ParallelInterSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                        ICFG<Method, Node> icfg) {
+        this.analysis = analysis;
+        this.icfg = icfg;
+    }
+
+    DataflowResult<Node, Fact> solve() {
+        long start = System.nanoTime();
+        initialize();
+        // hold an extra activity while scheduling the partitions, so that
+        // the solver does not finish before all partitions are scheduled
+        active.incrementAndGet();
+        partitions.values().forEach(Partition::schedule);
+        deactivate();
+        done.join();
+        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        SolverStats stats = result.getStats();
+        for (Partition partition : partitions.values()) {
+            partition.inFacts.forEach(result::setInFact);
+            partition.outFacts.forEach(result::setOutFact);
+            stats.add(partition.stats);
+        }
+        stats.addWallTime(System.nanoTime() - start);
+        icfg.forEach(node -> stats.countFactSize(result.getOutFact(node)));
+        return result;
+    }
+
+    private void initialize() {
+        for (Node node : icfg) {
+            Partition partition = partitions.computeIfAbsent(
+                    icfg.getContainingMethodOf(node), m -> new Partition());
+            partition.nodes.add(node);
+            partition.inFacts.put(node, analysis.newInitialFact());
+            partition.outFacts.put(node, analysis.newInitialFact());
+        }
+        icfg.entryMethods().forEach(method -> {
+            Node entry = icfg.getEntryOf(method);
+            Partition partition = partitions.get(method);
+            partition.inFacts.put(entry, analysis.newBoundaryFact(entry));
+            partition.outFacts.put(entry, analysis.newBoundaryFact(entry));
+        });
+        for (Partition partition : partitions.values()) {
+            partition.nodes.forEach(partition::addNode);
+        }
+    }
+
+    private void deactivate() {
+        if (active.decrementAndGet() == 0) {
+            done.complete(null);
+        }
+    }
+
+    /**
+     * @return true if given edge connects different methods,
+     * i.e., it is a {@link CallEdge} or a {@link ReturnEdge}.
+     */
+    private static boolean isInterEdge(ICFGEdge<?> edge) {
+        return edge instanceof CallEdge || edge instanceof ReturnEdge;
+    }
+
+    /**
+     * Nodes of a method, along with their facts and work-list.
+     */
+    private class Partition {
+
+        private final List<Node> nodes = new ArrayList<>();
+
+        private final Map<Node, Fact> inFacts = Maps.newMap();
+
+        private final Map<Node, Fact> outFacts = Maps.newMap();
+
+        private final Queue<Node> workList = new ArrayDeque<>();
+
+        private final Set<Node> pending = Sets.newSet();
+
+        /**
+         * Nodes which have been solved at least once.
+         */
+        private final Set<Node> visited = Sets.newSet();
+
+        /**
+         * The latest facts received along the inter-procedural in-edges.
+         */
+        private final Map<ICFGEdge<Node>, Fact> incoming = Maps.newMap();
+
+        private final Queue<Pair<ICFGEdge<Node>, Fact>> inbox =
+                new ConcurrentLinkedQueue<>();
+
+        /**
+         * Number of times this partition is signaled since it
+         * was last scheduled.
+         */
+        private final AtomicInteger signals = new AtomicInteger();
+
+        private final SolverStats stats = new SolverStats();
+
+        private void addNode(Node node) {
+            if (pending.add(node)) {
+                workList.add(node);
+            }
+        }
+
+        /**
+         * Sends a fact along given inter-procedural edge to this partition.
+         */
+        private void send(ICFGEdge<Node> edge, Fact fact) {
+            inbox.add(new Pair<>(edge, fact));
+            schedule();
+        }
+
+        /**
+         * Schedules this partition to be solved, unless it has already
+         * been scheduled and not yet finished.
+         */
+        private void schedule() {
+            if (signals.getAndIncrement() == 0) {
+                active.incrementAndGet();
+                pool.execute(this::run);
+            }
+        }
+
+        private void run() {
+            try {
+                int n;
+                do {
+                    n = signals.get();
+                    receive();
+                    solve();
+                } while (signals.addAndGet(-n) != 0);
+                deactivate();
+            } catch (Throwable e) {
+                done.completeExceptionally(e);
+            }
+        }
+
+        private void receive() {
+            Pair<ICFGEdge<Node>, Fact> message;
+            while ((message = inbox.poll()) != null) {
+                ICFGEdge<Node> edge = message.first();
+                incoming.put(edge, message.second());
+                addNode(edge.getTarget());
+            }
+        }
+
+        private void solve() {
+            while (!workList.isEmpty()) {
+                Node node = workList.poll();
+                pending.remove(node);
+                stats.countNodeVisit();
+                Fact in = analysis.newInitialFact();
+                for (ICFGEdge<Node> edge : icfg.getInEdgesOf(node)) {
+                    Fact edgeOut = isInterEdge(edge) ?
+                            incoming.get(edge) :
+                            analysis.transferEdge(edge, outFacts.get(edge.getSource()));
+                    if (edgeOut != null) {
+                        stats.countMeet();
+                        analysis.meetInto(edgeOut, in);
+                    }
+                }
+                inFacts.put(node, in);
+                Fact out = outFacts.get(node);
+                stats.countTransfer();
+                boolean changed = analysis.transferNode(node, in, out);
+                if (visited.add(node) || changed) {
+                    for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                        if (isInterEdge(edge)) {
+                            Fact edgeOut = analysis.transferEdge(edge, out);
+                            if (edgeOut != null) {
+                                partitions.get(icfg.getContainingMethodOf(
+                                        edge.getTarget())).send(edge, edgeOut);
+                            }
+                        } else {
+                            addNode(edge.getTarget());
+                        }
+                    }
+                }
+                stats.updateWorkListSize(workList.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.SolverStats;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Tabulation solver for inter-procedural data-flow analysis, which follows
+ * the functional approach to inter-procedural analysis.
+ * <p>
+ * Instead of solving the whole ICFG as a single fixed point, this solver
+ * solves each method separately for each distinct fact at its entry,
+ * i.e., the fact given by {@link CallEdge}s. The solution of a method for
+ * an entry fact is kept as a {@link Summary}, whose fact at the exit of the
+ * method is applied to every call site which calls the method with the
+ * same entry fact, thus a method is not solved again when it is called
+ * by other callers in the same way. As the facts from different callers
+ * are not merged at the callees, the results at the return sites are
+ * at least as precise as the results of {@link InterSolver}.
+ * <p>
+ * The facts of a node in the resulting {@link DataflowResult} are the meet
+ * of its facts in all summaries of its containing method.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <Fact>   type of data-flow facts
+ */
+class TabulationSolver<Method, Node, Fact> {
+
+    /**
+     * Maximum number of summaries of each method. The entry facts beyond
+     * the limit are merged into a single summary of the method, so that
+     * the solver terminates even if a method may be called with infinitely
+     * many entry facts, e.g., by recursion.
+     */
+    private static final int MAX_SUMMARIES = 16;
+
+    private final InterDataflowAnalysis<Node, Fact> analysis;
+
+    private final ICFG<Method, Node> icfg;
+
+    private final Map<Method, Map<Fact, Summary>> summaries = Maps.newMap();
+
+    private final Map<Method, Summary> mergedSummaries = Maps.newMap();
+
+    /**
+     * Summaries which have pending nodes.
+     */
+    private final Queue<Summary> workList = new ArrayDeque<>();
+
+    private SolverStats stats;
+
+    TabulationSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                     ICFG<Method, Node> icfg) {
+        this.analysis = analysis;
+        this.icfg = icfg;
+    }
+
+    DataflowResult<Node, Fact> solve() {
+        long start = System.nanoTime();
+        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        stats = result.getStats();
+        icfg.entryMethods().forEach(method -> getSummary(method,
+                analysis.newBoundaryFact(icfg.getEntryOf(method))));
+        while (!workList.isEmpty()) {
+            Summary summary = workList.poll();
+            summary.queued = false;
+            solve(summary);
+        }
+        collectResult(result);
+        stats.addWallTime(System.nanoTime() - start);
+        icfg.forEach(node -> stats.countFactSize(result.getOutFact(node)));
+        return result;
+    }
+
+    /**
+     * @return the summary of given method for given entry fact.
+     * If the summary does not exist, then it is created and scheduled.
+     */
+    private Summary getSummary(Method method, Fact entryFact) {
+        Map<Fact, Summary> methodSummaries =
+                summaries.computeIfAbsent(method, m -> Maps.newMap());
+        Summary summary = methodSummaries.get(entryFact);
+        if (summary != null) {
+            return summary;
+        }
+        if (methodSummaries.size() < MAX_SUMMARIES) {
+            summary = new Summary(method, entryFact);
+            methodSummaries.put(entryFact, summary);
+            addNode(summary, icfg.getEntryOf(method));
+            return summary;
+        }
+        // too many summaries, merge the entry fact into the merged summary
+        summary = mergedSummaries.computeIfAbsent(method,
+                m -> new Summary(m, analysis.newInitialFact()));
+        Fact newEntryFact = analysis.newInitialFact();
+        analysis.meetInto(summary.entryFact, newEntryFact);
+        analysis.meetInto(entryFact, newEntryFact);
+        if (!newEntryFact.equals(summary.entryFact) ||
+                summary.outFacts.isEmpty()) {
+            summary.entryFact = newEntryFact;
+            addNode(summary, icfg.getEntryOf(method));
+        }
+        return summary;
+    }
+
+    private void addNode(Summary summary, Node node) {
+        if (summary.pendingNodes.add(node)) {
+            summary.nodes.add(node);
+            if (!summary.queued) {
+                summary.queued = true;
+                workList.add(summary);
+                stats.updateWorkListSize(workList.size());
+            }
+        }
+    }
+
+    /**
+     * Solves the pending nodes of given summary until they are exhausted.
+     */
+    private void solve(Summary summary) {
+        Node entry = icfg.getEntryOf(summary.method);
+        Node exit = icfg.getExitOf(summary.method);
+        while (!summary.nodes.isEmpty()) {
+            Node node = summary.nodes.poll();
+            summary.pendingNodes.remove(node);
+            stats.countNodeVisit();
+            Fact in = node.equals(entry) ?
+                    summary.entryFact : meetInFacts(summary, node);
+            summary.inFacts.put(node, in);
+            Fact out = summary.outFacts.get(node);
+            boolean changed = out == null;
+            if (changed) {
+                out = analysis.newInitialFact();
+                summary.outFacts.put(node, out);
+            }
+            stats.countTransfer();
+            changed |= analysis.transferNode(node, in, out);
+            if (icfg.isCallSite(node)) {
+                processCall(summary, node, out);
+            }
+            if (changed) {
+                for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                    if (isIntraEdge(edge)) {
+                        addNode(summary, edge.getTarget());
+                    }
+                }
+                if (node.equals(exit)) {
+                    // the summary changed, thus its callers need to
+                    // apply it to their return sites again
+                    summary.callers.forEach(caller ->
+                            addReturnSites(caller.first(), caller.second()));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the meet of the facts flowing into given node in given
+     * summary. For the return edges, the facts are given by the summaries
+     * of the callees for the corresponding call sites.
+     */
+    private Fact meetInFacts(Summary summary, Node node) {
+        Fact in = analysis.newInitialFact();
+        for (ICFGEdge<Node> edge : icfg.getInEdgesOf(node)) {
+            Fact predOut = null;
+            if (edge instanceof ReturnEdge<Node> returnEdge) {
+                Method callee = icfg.getContainingMethodOf(edge.getSource());
+                Summary calleeSummary = summary.callees.get(
+                        new Pair<>(returnEdge.getCallSite(), callee));
+                if (calleeSummary != null) {
+                    predOut = calleeSummary.outFacts.get(edge.getSource());
+                }
+            } else if (isIntraEdge(edge)) {
+                predOut = summary.outFacts.get(edge.getSource());
+            }
+            if (predOut != null) {
+                Fact edgeOut = analysis.transferEdge(edge, predOut);
+                if (edgeOut != null) {
+                    stats.countMeet();
+                    analysis.meetInto(edgeOut, in);
+                }
+            }
+        }
+        return in;
+    }
+
+    /**
+     * Finds the summaries of the callees for the entry facts given by
+     * the out fact of the call site, and applies them at the return sites
+     * if any of the summaries is different from the one used before.
+     */
+    private void processCall(Summary summary, Node callSite, Fact callSiteOut) {
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(callSite)) {
+            if (edge instanceof CallEdge<Node>) {
+                Fact entryFact = analysis.transferEdge(edge, callSiteOut);
+                if (entryFact == null) {
+                    continue;
+                }
+                Method callee = icfg.getContainingMethodOf(edge.getTarget());
+                Summary calleeSummary = getSummary(callee, entryFact);
+                if (summary.callees.put(new Pair<>(callSite, callee),
+                        calleeSummary) != calleeSummary) {
+                    calleeSummary.callers.add(new Pair<>(summary, callSite));
+                    addReturnSites(summary, callSite);
+                }
+            }
+        }
+    }
+
+    private void addReturnSites(Summary summary, Node callSite) {
+        icfg.getReturnSitesOf(callSite)
+                .forEach(returnSite -> addNode(summary, returnSite));
+    }
+
+    /**
+     * @return true if given edge is inside a method, i.e., it is neither
+     * a {@link CallEdge} nor a {@link ReturnEdge}.
+     */
+    private static boolean isIntraEdge(ICFGEdge<?> edge) {
+        return !(edge instanceof CallEdge || edge instanceof ReturnEdge);
+    }
+
+    /**
+     * Meets the facts of each node in all summaries into the result.
+     * The nodes which are not reached in any summary keep initial facts.
+     */
+    private void collectResult(DataflowResult<Node, Fact> result) {
+        for (Node node : icfg) {
+            result.setInFact(node, analysis.newInitialFact());
+            result.setOutFact(node, analysis.newInitialFact());
+        }
+        summaries.values().forEach(methodSummaries ->
+                methodSummaries.values().forEach(s -> collectResult(s, result)));
+        mergedSummaries.values().forEach(s -> collectResult(s, result));
+    }
+
+    private void collectResult(Summary summary, DataflowResult<Node, Fact> result) {
+        summary.inFacts.forEach((node, fact) ->
+                analysis.meetInto(fact, result.getInFact(node)));
+        summary.outFacts.forEach((node, fact) ->
+                analysis.meetInto(fact, result.getOutFact(node)));
+    }
+
+    /**
+     * Solution of a method for an entry fact.
+     */
+    private class Summary {
+
+        private final Method method;
+
+        /**
+         * The entry fact, which only changes for the merged summaries.
+         */
+        private Fact entryFact;
+
+        private final Map<Node, Fact> inFacts = Maps.newMap();
+
+        private final Map<Node, Fact> outFacts = Maps.newMap();
+
+        private final Queue<Node> nodes = new ArrayDeque<>();
+
+        private final Set<Node> pendingNodes = Sets.newSet();
+
+        /**
+         * Summaries of the callees used at the call sites of this summary,
+         * keyed by pairs of call site and callee.
+         */
+        private final Map<Pair<Node, Method>, Summary> callees = Maps.newMap();
+
+        /**
+         * Pairs of caller summary and call site which use this summary.
+         */
+        private final Set<Pair<Summary, Node>> callers = Sets.newHybridSet();
+
+        private boolean queued;
+
+        private Summary(Method method, Fact entryFact) {
+            this.method = method;
+            this.entryFact = entryFact;
+        }
+    }
+}
@@ -32,12 +32,16 @@ import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.classes.Subsignature;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
 import polyglot.ast.Call;
 
 import java.util.ArrayDeque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Implementation of the CHA algorithm.
@@ -46,10 +50,30 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
     private ClassHierarchy hierarchy;
 
+    /**
+     * Whether to process the newly reachable methods in parallel.
+     */
+    private final boolean parallel;
+
+    /**
+     * Cache of the resolved targets of virtual and interface calls,
+     * keyed by the declaring classes and subsignatures of the method
+     * references, so that the call sites which refer to the same method
+     * share the same (immutable) set of targets.
+     */
+    private final ConcurrentMap<Pair<JClass, Subsignature>, Set<JMethod>> resolveCache =
+            Maps.newConcurrentMap();
+
+    CHABuilder(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     @Override
     public CallGraph<Invoke, JMethod> build() {
         hierarchy = World.get().getClassHierarchy();
-        return buildCallGraph(World.get().getMainMethod());
+        JMethod entry = World.get().getMainMethod();
+        return parallel ?
+                buildCallGraphInParallel(entry) : buildCallGraph(entry);
     }
 
     private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
@@ -78,12 +102,39 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
         return callGraph;
     }
 
+    /**
+     * Builds the same call graph as {@link #buildCallGraph(JMethod)},
+     * but processes the methods reached in each round in parallel.
+     * The callees of the new edges found in a round are the candidates
+     * of newly reachable methods of the next round.
+     */
+    private CallGraph<Invoke, JMethod> buildCallGraphInParallel(JMethod entry) {
+        ConcurrentCallGraph callGraph = new ConcurrentCallGraph();
+        callGraph.addEntryMethod(entry);
+
+        List<JMethod> frontier = List.of(entry);
+        while (!frontier.isEmpty()) {
+            frontier = frontier.parallelStream()
+                    .filter(callGraph::addReachableMethod)
+                    .flatMap(method -> callGraph.getCallSitesIn(method).stream())
+                    .flatMap(callSite -> {
+                        CallKind callKind = CallGraphs.getCallKind(callSite);
+                        return resolve(callSite)
+                                .stream()
+                                .filter(callee -> callGraph.addEdge(
+                                        new Edge<>(callKind, callSite, callee)));
+                    })
+                    .distinct()
+                    .toList();
+        }
+        return callGraph;
+    }
+
     /**
      * Resolves call targets (callees) of a call site via CHA.
      */
     private Set<JMethod> resolve(Invoke callSite) {
         // TODO - finish me
-        Set<JMethod> T = new HashSet<>();
         MethodRef methodRef = callSite.getMethodRef();
         Subsignature subsignature = methodRef.getSubsignature();
 
@@ -91,40 +142,37 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
         if (callKind == CallKind.STATIC ) {
             JClass static_class = methodRef.getDeclaringClass();
             JMethod jMethod = static_class.getDeclaredMethod(subsignature);
-            if (jMethod != null) T.add(jMethod);
+            if (jMethod != null) return Set.of(jMethod);
         }
         else if( callKind == CallKind.SPECIAL){
             JClass m_class = methodRef.getDeclaringClass();
             JMethod jMethod = dispatch(m_class, subsignature);
-            if (jMethod != null) T.add(jMethod);
+            if (jMethod != null) return Set.of(jMethod);
         }
         else if (callKind == CallKind.VIRTUAL || callKind == CallKind.INTERFACE) {
-            //这里是有问题的，遍历mtype的子集和遍历receiverobject type的子集并作dispatch的结果是不能保证一样的？
-            JClass declared_receiver_class = methodRef.getDeclaringClass();
-            Queue<JClass> subClasses = new ArrayDeque<>();
-            //这个set主要是针对同级设计的
-            Set<JClass> visited = new HashSet<>();
-            subClasses.add(declared_receiver_class);
-
-            while(!subClasses.isEmpty()) {
-                JClass jClass = subClasses.poll();
-                JMethod jMethod = dispatch(jClass, subsignature);
-                if (jMethod != null) T.add(jMethod);
-
-                //需要考虑接口和实现吗，这个算法的本质是？
-                for (JClass sub : hierarchy.getDirectSubinterfacesOf(jClass)) {
-                    if (visited.add(sub)) subClasses.add(sub);
-                }
-                for (JClass sub : hierarchy.getDirectImplementorsOf(jClass)) {
-                    if (visited.add(sub)) subClasses.add(sub);
-                }
-                for (JClass sub : hierarchy.getDirectSubclassesOf(jClass)) {
-                    if (visited.add(sub)) subClasses.add(sub);
-                }
-            }
+            return resolveCache.computeIfAbsent(
+                    new Pair<>(methodRef.getDeclaringClass(), subsignature),
+                    key -> resolveVirtual(key.first(), key.second()));
+        }
+        return Set.of();
+    }
 
+    /**
+     * Resolves the targets of a virtual or interface call via CHA,
+     * i.e., dispatches on the declaring class of the method reference
+     * and all its subclasses, subinterfaces and implementors, which are
+     * enumerated by the subtype index of the class hierarchy.
+     *
+     * @return an immutable set of the targets.
+     */
+    private Set<JMethod> resolveVirtual(JClass declared_receiver_class,
+                                        Subsignature subsignature) {
+        Set<JMethod> T = new HashSet<>();
+        for (JClass jClass : hierarchy.getAllSubclassesOf(declared_receiver_class)) {
+            JMethod jMethod = dispatch(jClass, subsignature);
+            if (jMethod != null) T.add(jMethod);
         }
-        return T;
+        return Set.copyOf(T);
     }
 
     /**
@@ -135,16 +183,6 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
      */
     private JMethod dispatch(JClass jclass, Subsignature subsignature) {
         // TODO - finish me
-        JMethod jMethod = jclass.getDeclaredMethod(subsignature);
-        if (jMethod != null && !jMethod.isAbstract()) {
-            return jMethod;
-        }
-        else {
-            JClass superClass = jclass.getSuperClass();
-            if (superClass != null) {
-                return dispatch(superClass, subsignature);
-            }
-        }
-        return null;
+        return hierarchy.dispatch(jclass, subsignature);
     }
 }
@@ -56,8 +56,15 @@ public class CallGraphBuilder extends ProgramAnalysis {
     @Override
     public CallGraph<Invoke, JMethod> analyze() {
         CGBuilder<Invoke, JMethod> builder;
+        boolean parallel = getOptions().getBooleanOrDefault("parallel", false);
         if (algorithm.equals("cha")) {
-            builder = new CHABuilder();
+            builder = new CHABuilder(parallel);
+        } else if (algorithm.equals("rta")) {
+            if (parallel) {
+                throw new ConfigException("Parallel building is not supported" +
+                        " by algorithm: " + algorithm);
+            }
+            builder = new RTABuilder();
         } else {
             throw new ConfigException("Unknown call graph building algorithm: " + algorithm);
         }
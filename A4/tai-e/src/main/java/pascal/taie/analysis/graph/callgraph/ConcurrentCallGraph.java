@@ -0,0 +1,77 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Set;
+
+/**
+ * Thread-safe variant of {@link DefaultCallGraph}, which allows methods
+ * and edges to be added concurrently by the call graph builders.
+ * <p>
+ * Only the modifications and {@link #getCallSitesIn(JMethod)}, which the
+ * builders query during construction, are synchronized. The other queries
+ * are meant to be used after the construction has finished.
+ */
+public class ConcurrentCallGraph extends DefaultCallGraph {
+
+    @Override
+    public synchronized void addEntryMethod(JMethod entryMethod) {
+        super.addEntryMethod(entryMethod);
+    }
+
+    /**
+     * Methods claimed by the threads which add them as reachable methods.
+     */
+    private final Set<JMethod> claimedMethods = Sets.newConcurrentSet();
+
+    @Override
+    public boolean addReachableMethod(JMethod method) {
+        if (!claimedMethods.add(method)) {
+            return false;
+        }
+        // only the thread which claims the method builds its IR (if needed),
+        // and it does so outside the lock, so that the methods claimed
+        // by different threads are built in parallel
+        if (!method.isAbstract()) {
+            method.getIR();
+        }
+        synchronized (this) {
+            return super.addReachableMethod(method);
+        }
+    }
+
+    @Override
+    public synchronized boolean addEdge(Edge<Invoke, JMethod> edge) {
+        return super.addEdge(edge);
+    }
+
+    @Override
+    public synchronized Set<Invoke> getCallSitesIn(JMethod method) {
+        return super.getCallSitesIn(method);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.NewArray;
+import pascal.taie.ir.exp.NewExp;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.exp.NewMultiArray;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+
+import static pascal.taie.language.classes.ClassNames.CLASS;
+import static pascal.taie.language.classes.ClassNames.OBJECT;
+import static pascal.taie.language.classes.ClassNames.STRING;
+
+/**
+ * Implementation of the RTA (Rapid Type Analysis) algorithm, which
+ * resolves virtual calls only to the classes instantiated by the
+ * {@link New} statements in the reachable methods. Besides, the objects
+ * of {@code java.lang.String} are passed to main method, and the objects
+ * of {@code java.lang.String} and {@code java.lang.Class} are created by
+ * the string and class literals, thus these classes are also instantiated.
+ * As the methods invoked on arrays are the ones of
+ * {@code java.lang.Object}, array allocations instantiate
+ * {@code java.lang.Object} for dispatch. The instantiated classes
+ * and the call graph are computed together on the fly.
+ */
+class RTABuilder implements CGBuilder<Invoke, JMethod> {
+
+    private ClassHierarchy hierarchy;
+
+    private DefaultCallGraph callGraph;
+
+    private Queue<JMethod> workList;
+
+    private final Set<JClass> instantiatedClasses = Sets.newSet();
+
+    /**
+     * Map from the declaring class of each method reference to the
+     * reachable virtual and interface call sites which refer to it.
+     */
+    private final MultiMap<JClass, Invoke> virtualCallSites = Maps.newMultiMap();
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        hierarchy = World.get().getClassHierarchy();
+        callGraph = new DefaultCallGraph();
+        workList = new ArrayDeque<>();
+        JMethod entry = World.get().getMainMethod();
+        callGraph.addEntryMethod(entry);
+        workList.add(entry);
+        // the elements of the argument array of main method are strings
+        instantiate(hierarchy.getJREClass(STRING));
+        // the argument array itself is dispatched as java.lang.Object
+        instantiate(hierarchy.getJREClass(OBJECT));
+        while (!workList.isEmpty()) {
+            JMethod method = workList.poll();
+            if (callGraph.addReachableMethod(method)) {
+                processNewMethod(method);
+            }
+        }
+        return callGraph;
+    }
+
+    private void processNewMethod(JMethod method) {
+        if (!method.isAbstract()) {
+            method.getIR().forEach(stmt -> {
+                if (stmt instanceof New newStmt) {
+                    NewExp newExp = newStmt.getRValue();
+                    if (newExp instanceof NewInstance newInstance) {
+                        instantiate(newInstance.getType().getJClass());
+                    } else if (newExp instanceof NewArray ||
+                            newExp instanceof NewMultiArray) {
+                        // methods invoked on arrays are declared
+                        // in java.lang.Object
+                        instantiate(hierarchy.getJREClass(OBJECT));
+                    }
+                } else if (stmt instanceof AssignLiteral assign) {
+                    // string and class literals are objects created implicitly
+                    Literal literal = assign.getRValue();
+                    if (literal instanceof StringLiteral) {
+                        instantiate(hierarchy.getJREClass(STRING));
+                    } else if (literal instanceof ClassLiteral) {
+                        instantiate(hierarchy.getJREClass(CLASS));
+                    }
+                }
+            });
+        }
+        callGraph.getCallSitesIn(method).forEach(this::processCallSite);
+    }
+
+    /**
+     * Records a newly instantiated class, and resolves the reachable
+     * virtual call sites which may be dispatched on it.
+     */
+    private void instantiate(JClass jclass) {
+        if (jclass != null && instantiatedClasses.add(jclass)) {
+            for (JClass declaringClass : virtualCallSites.keySet()) {
+                if (hierarchy.isSubclass(declaringClass, jclass)) {
+                    for (Invoke callSite : virtualCallSites.get(declaringClass)) {
+                        addCallEdge(callSite, hierarchy.dispatch(jclass,
+                                callSite.getMethodRef().getSubsignature()));
+                    }
+                }
+            }
+        }
+    }
+
+    private void processCallSite(Invoke callSite) {
+        MethodRef methodRef = callSite.getMethodRef();
+        JClass declaringClass = methodRef.getDeclaringClass();
+        switch (CallGraphs.getCallKind(callSite)) {
+            case STATIC -> addCallEdge(callSite,
+                    declaringClass.getDeclaredMethod(methodRef.getSubsignature()));
+            case SPECIAL -> addCallEdge(callSite,
+                    hierarchy.dispatch(declaringClass, methodRef.getSubsignature()));
+            case VIRTUAL, INTERFACE -> {
+                virtualCallSites.put(declaringClass, callSite);
+                for (JClass jclass : instantiatedClasses) {
+                    if (hierarchy.isSubclass(declaringClass, jclass)) {
+                        addCallEdge(callSite, hierarchy.dispatch(jclass,
+                                methodRef.getSubsignature()));
+                    }
+                }
+            }
+        }
+    }
+
+    private void addCallEdge(Invoke callSite, JMethod callee) {
+        if (callee != null && callGraph.addEdge(new Edge<>(
+                CallGraphs.getCallKind(callSite), callSite, callee))) {
+            workList.add(callee);
+        }
+    }
+}
@@ -75,6 +75,18 @@ public interface ClassHierarchy {
      */
     Collection<JClass> getDirectSubclassesOf(JClass jclass);
 
+    /**
+     * @return true if {@code subclass} is a subclass (or subinterface,
+     * or implementor) of {@code superclass}, or they are the same class.
+     */
+    boolean isSubclass(JClass superclass, JClass subclass);
+
+    /**
+     * @return all subclasses (including subinterfaces and implementors)
+     * of given class, including the class itself.
+     */
+    Collection<JClass> getAllSubclassesOf(JClass jclass);
+
     /**
      * Obtains a JRE class by it name.
      *
@@ -87,6 +99,18 @@ public interface ClassHierarchy {
 
     @Nullable JMethod resolveMethod(MethodRef methodRef);
 
+    /**
+     * Dispatches a method call on an object of given class, i.e., looks up
+     * the non-abstract method which matches the subsignature, including
+     * the methods inherited from superclasses and the default methods of
+     * superinterfaces.
+     *
+     * @return the dispatched target method, or null if no satisfying method
+     * can be found.
+     */
+    @Nullable
+    JMethod dispatch(JClass receiverClass, Subsignature subsignature);
+
     /**
      * Obtains a method declared in a JRE class by its signature.
      *
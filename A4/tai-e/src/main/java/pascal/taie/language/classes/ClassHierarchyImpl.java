@@ -28,12 +28,15 @@ import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.util.AnalysisException;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static pascal.taie.util.collection.Maps.newConcurrentMap;
 import static pascal.taie.util.collection.Maps.newMap;
 import static pascal.taie.util.collection.Maps.newSmallMap;
 import static pascal.taie.util.collection.Sets.newHybridSet;
@@ -65,6 +68,20 @@ public class ClassHierarchyImpl implements ClassHierarchy {
      */
     private final Map<JClass, Set<JClass>> directSubclasses = newMap();
 
+    /**
+     * Index of the subtype relation, which is built on demand,
+     * and discarded whenever a class is added.
+     */
+    private volatile SubtypeIndex subtypeIndex;
+
+    /**
+     * Map from each class to its dispatch table, which maps the subsignature
+     * of each method callable on the objects of the class to the dispatched
+     * target method. The tables are built lazily on the first dispatch.
+     */
+    private final Map<JClass, Map<Subsignature, JMethod>> dispatchTables =
+            newConcurrentMap();
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -97,6 +114,7 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     @Override
     public void addClass(JClass jclass) {
+        subtypeIndex = null;
         // Add direct subinterface
         if (jclass.isInterface()) {
             jclass.getInterfaces().forEach(iface ->
@@ -160,6 +178,43 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return directSubclasses.getOrDefault(jclass, Set.of());
     }
 
+    @Override
+    public boolean isSubclass(JClass superclass, JClass subclass) {
+        return getSubtypeIndex(superclass, subclass)
+                .isSubclass(superclass, subclass);
+    }
+
+    @Override
+    public Collection<JClass> getAllSubclassesOf(JClass jclass) {
+        return getSubtypeIndex(jclass).getAllSubclassesOf(jclass);
+    }
+
+    /**
+     * @return the subtype index which covers given classes.
+     */
+    private SubtypeIndex getSubtypeIndex(JClass... classes) {
+        SubtypeIndex index = subtypeIndex;
+        if (index == null || !covers(index, classes)) {
+            synchronized (this) {
+                index = subtypeIndex;
+                if (index == null || !covers(index, classes)) {
+                    index = new SubtypeIndex(this,
+                            allClasses().collect(Collectors.toList()));
+                    subtypeIndex = index;
+                }
+            }
+            if (!covers(index, classes)) {
+                throw new AnalysisException("Classes " + Arrays.toString(classes)
+                        + " are not in the class hierarchy");
+            }
+        }
+        return index;
+    }
+
+    private static boolean covers(SubtypeIndex index, JClass... classes) {
+        return Arrays.stream(classes).allMatch(index::contains);
+    }
+
     private static boolean checkCHA = false;
 
     public static void setCheckCHA(boolean checkCHA) {
@@ -229,6 +284,127 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return null;
     }
 
+    @Override
+    public @Nullable
+    JMethod dispatch(JClass receiverClass, Subsignature subsignature) {
+        return getDispatchTable(receiverClass).get(subsignature);
+    }
+
+    /**
+     * @return the dispatch table of given class, see {@link #dispatchTables}.
+     */
+    private Map<Subsignature, JMethod> getDispatchTable(JClass jclass) {
+        Map<Subsignature, JMethod> table = dispatchTables.get(jclass);
+        if (table == null) {
+            // the table is not built by computeIfAbsent(), as building it
+            // requires the tables of the superclasses in the same map
+            table = buildDispatchTable(jclass);
+            Map<Subsignature, JMethod> prev = dispatchTables.putIfAbsent(jclass, table);
+            if (prev != null) {
+                table = prev;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Builds the dispatch table of given class: the non-abstract methods
+     * declared in the class override the ones which it inherits from
+     * its superclasses, and the subsignatures which are not implemented by
+     * any class on the superclass chain are dispatched to the maximally
+     * specific default methods of its superinterfaces (JVMS 5.4.6).
+     */
+    private Map<Subsignature, JMethod> buildDispatchTable(JClass jclass) {
+        Map<Subsignature, JMethod> table = newMap();
+        JClass superClass = jclass.getSuperClass();
+        if (superClass != null) {
+            // only the methods declared in classes are inherited here,
+            // the default methods are selected again for this class
+            getDispatchTable(superClass).forEach((subsig, method) -> {
+                if (!method.getDeclaringClass().isInterface()) {
+                    table.put(subsig, method);
+                }
+            });
+        }
+        if (!jclass.isInterface()) {
+            for (JMethod method : jclass.getDeclaredMethods()) {
+                if (!method.isAbstract()) {
+                    table.put(method.getSubsignature(), method);
+                }
+            }
+        }
+        addDefaultMethods(jclass, table);
+        return Collections.unmodifiableMap(table);
+    }
+
+    /**
+     * Adds the default methods of the superinterfaces of given class
+     * to its dispatch table. For each subsignature not in the table,
+     * the method declared (abstract or not) in the maximally specific
+     * superinterfaces, i.e., the ones which have no subinterfaces declaring
+     * the same subsignature, is selected if exactly one of them is
+     * non-abstract. If given class is an interface, it is also
+     * a superinterface of itself.
+     */
+    private static void addDefaultMethods(
+            JClass jclass, Map<Subsignature, JMethod> table) {
+        Map<JClass, Set<JClass>> superinterfaces = newMap();
+        Set<JClass> ifaces = newHybridSet();
+        if (jclass.isInterface()) {
+            ifaces.addAll(collectSuperinterfaces(jclass, superinterfaces));
+        }
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            for (JClass iface : c.getInterfaces()) {
+                ifaces.addAll(collectSuperinterfaces(iface, superinterfaces));
+            }
+        }
+        Map<Subsignature, Set<JMethod>> candidates = newMap();
+        for (JClass iface : ifaces) {
+            for (JMethod method : iface.getDeclaredMethods()) {
+                if (!method.isStatic() && !method.isPrivate() &&
+                        !table.containsKey(method.getSubsignature())) {
+                    candidates.computeIfAbsent(method.getSubsignature(),
+                            s -> newHybridSet()).add(method);
+                }
+            }
+        }
+        candidates.forEach((subsig, methods) -> {
+            JMethod selected = null;
+            int nonAbstract = 0;
+            for (JMethod method : methods) {
+                JClass iface = method.getDeclaringClass();
+                boolean maximal = methods.stream().noneMatch(m ->
+                        m != method && superinterfaces.get(m.getDeclaringClass())
+                                .contains(iface));
+                if (maximal && !method.isAbstract()) {
+                    selected = method;
+                    ++nonAbstract;
+                }
+            }
+            if (nonAbstract == 1) {
+                table.put(subsig, selected);
+            }
+        });
+    }
+
+    /**
+     * @return given interface and all its (transitive) superinterfaces.
+     * The results are memoized in {@code superinterfaces}.
+     */
+    private static Set<JClass> collectSuperinterfaces(
+            JClass iface, Map<JClass, Set<JClass>> superinterfaces) {
+        Set<JClass> result = superinterfaces.get(iface);
+        if (result == null) {
+            result = newHybridSet();
+            result.add(iface);
+            for (JClass superIface : iface.getInterfaces()) {
+                result.addAll(collectSuperinterfaces(superIface, superinterfaces));
+            }
+            superinterfaces.put(iface, result);
+        }
+        return result;
+    }
+
     @Override
     public @Nullable
     JClass getJREClass(String name) {
@@ -0,0 +1,183 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.language.classes;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static pascal.taie.util.collection.Maps.newMap;
+
+/**
+ * Index of the subtype relation of a class hierarchy, which answers
+ * subtype checks in constant time without walking the hierarchy.
+ * <p>
+ * The classes (excluding interfaces) form a tree via their superclasses,
+ * thus they are numbered by DFS pre-order over the tree, so that
+ * the subclasses of each class occupy a contiguous range of numbers,
+ * i.e., [pre-order number of the class, the maximum pre-order number
+ * in its subtree]. The interfaces form a DAG, thus each class and interface
+ * keeps a bitset of all its (transitive) superinterfaces instead.
+ * <p>
+ * This index is a snapshot of the hierarchy, and needs to be rebuilt
+ * after more classes are added to the hierarchy.
+ */
+class SubtypeIndex {
+
+    /**
+     * The classes (excluding interfaces) in DFS pre-order.
+     */
+    private final List<JClass> classes = new ArrayList<>();
+
+    /**
+     * Map from each class to its pre-order number.
+     */
+    private final Map<JClass, Integer> preNumbers = newMap();
+
+    /**
+     * Map from each class to the maximum pre-order number in its subtree,
+     * which is also the last number assigned before the class is
+     * post-visited by the DFS.
+     */
+    private final Map<JClass, Integer> lastNumbers = newMap();
+
+    private final List<JClass> interfaces = new ArrayList<>();
+
+    private final Map<JClass, Integer> interfaceNumbers = newMap();
+
+    /**
+     * Map from each class and interface to the numbers of its superinterfaces.
+     * The set of an interface also contains the interface itself.
+     */
+    private final Map<JClass, BitSet> superinterfaces = newMap();
+
+    SubtypeIndex(ClassHierarchy hierarchy, Collection<JClass> allClasses) {
+        for (JClass jclass : allClasses) {
+            if (jclass.isInterface()) {
+                interfaceNumbers.put(jclass, interfaces.size());
+                interfaces.add(jclass);
+            } else if (jclass.getSuperClass() == null) {
+                number(hierarchy, jclass);
+            }
+        }
+        allClasses.forEach(this::computeSuperinterfaces);
+    }
+
+    /**
+     * Numbers the classes in the subtree of given class by DFS.
+     */
+    private void number(ClassHierarchy hierarchy, JClass jclass) {
+        preNumbers.put(jclass, classes.size());
+        classes.add(jclass);
+        for (JClass subclass : hierarchy.getDirectSubclassesOf(jclass)) {
+            number(hierarchy, subclass);
+        }
+        lastNumbers.put(jclass, classes.size() - 1);
+    }
+
+    private BitSet computeSuperinterfaces(JClass jclass) {
+        BitSet result = superinterfaces.get(jclass);
+        if (result == null) {
+            result = new BitSet(interfaces.size());
+            Integer number = interfaceNumbers.get(jclass);
+            if (number != null) {
+                result.set(number);
+            }
+            JClass superClass = jclass.getSuperClass();
+            if (superClass != null && !jclass.isInterface()) {
+                result.or(computeSuperinterfaces(superClass));
+            }
+            for (JClass iface : jclass.getInterfaces()) {
+                result.or(computeSuperinterfaces(iface));
+            }
+            superinterfaces.put(jclass, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return true if given class is covered by this index.
+     */
+    boolean contains(JClass jclass) {
+        return jclass.isInterface() ?
+                interfaceNumbers.containsKey(jclass) :
+                preNumbers.containsKey(jclass);
+    }
+
+    /**
+     * @return true if {@code subclass} is a subclass (or subinterface,
+     * or implementor) of {@code superclass}, or they are the same class.
+     */
+    boolean isSubclass(JClass superclass, JClass subclass) {
+        if (superclass == subclass) {
+            return true;
+        }
+        if (superclass.isInterface()) {
+            return superinterfaces.get(subclass)
+                    .get(interfaceNumbers.get(superclass));
+        }
+        if (subclass.isInterface()) {
+            // interfaces are subclasses of the root classes only,
+            // i.e., java.lang.Object
+            return superclass.getSuperClass() == null;
+        }
+        int pre = preNumbers.get(subclass);
+        return preNumbers.get(superclass) <= pre &&
+                pre <= lastNumbers.get(superclass);
+    }
+
+    /**
+     * @return all subclasses (including subinterfaces and implementors)
+     * of given class, including the class itself.
+     */
+    Collection<JClass> getAllSubclassesOf(JClass jclass) {
+        if (!jclass.isInterface()) {
+            return Collections.unmodifiableList(classes.subList(
+                    preNumbers.get(jclass), lastNumbers.get(jclass) + 1));
+        }
+        int number = interfaceNumbers.get(jclass);
+        List<JClass> result = new ArrayList<>();
+        for (JClass iface : interfaces) {
+            if (superinterfaces.get(iface).get(number)) {
+                result.add(iface);
+            }
+        }
+        // once a class implements the interface, so does its whole subtree,
+        // which is a contiguous range of the classes
+        for (int i = 0; i < classes.size(); ) {
+            JClass c = classes.get(i);
+            if (superinterfaces.get(c).get(number)) {
+                int last = lastNumbers.get(c);
+                result.addAll(classes.subList(i, last + 1));
+                i = last + 1;
+            } else {
+                ++i;
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+}
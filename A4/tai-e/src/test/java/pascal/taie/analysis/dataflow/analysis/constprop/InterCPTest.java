@@ -57,4 +57,49 @@ public class InterCPTest {
     public void testMultiIntArgs() {
         test("MultiIntArgs");
     }
+
+    @Test
+    public void testFibonacciWithSCCWorkList() {
+        Tests.test("Fibonacci", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;worklist:scc",
+                "-a", "cg=algorithm:cha");
+    }
+
+    void testWithTabulation(String inputClass, String classPath) {
+        Tests.test(inputClass, classPath, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;tabulation:true",
+                "-a", "cg=algorithm:cha");
+    }
+
+    @Test
+    public void testExampleWithTabulation() {
+        testWithTabulation("Example", CLASS_PATH);
+    }
+
+    /**
+     * The recursive calls create new entry facts until the summaries
+     * of getFibonacci are merged, whose NAC results reach all callers,
+     * thus the results are the same as the ones of the default solver.
+     */
+    @Test
+    public void testFibonacciWithTabulation() {
+        testWithTabulation("Fibonacci", CLASS_PATH);
+    }
+
+    /**
+     * foo is called with different constant arguments, and each call
+     * site receives the result of its own summary instead of NAC,
+     * thus the expected results are kept in a separate directory.
+     */
+    @Test
+    public void testMultiIntArgsWithTabulation() {
+        testWithTabulation("MultiIntArgs", CLASS_PATH + "/tabulation");
+    }
+
+    @Test
+    public void testFibonacciWithParallelSolver() {
+        Tests.test("Fibonacci", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;parallel:true",
+                "-a", "cg=algorithm:cha");
+    }
 }
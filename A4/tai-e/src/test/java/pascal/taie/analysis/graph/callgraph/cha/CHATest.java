@@ -50,4 +50,25 @@ public class CHATest {
     public void testAbstractMethod() {
         test("AbstractMethod");
     }
+
+    @Test
+    public void testSharedCallee() {
+        test("SharedCallee");
+    }
+
+    @Test
+    public void testVirtualCallInParallel() {
+        testInParallel("VirtualCall");
+    }
+
+    @Test
+    public void testSharedCalleeInParallel() {
+        // several call sites reach the same callee in the same round
+        testInParallel("SharedCallee");
+    }
+
+    private static void testInParallel(String main) {
+        Tests.test(main, "src/test/resources/cha/", "cg",
+                "algorithm:cha;parallel:true");
+    }
 }
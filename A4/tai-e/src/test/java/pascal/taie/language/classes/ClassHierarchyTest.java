@@ -0,0 +1,102 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.language.classes;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ClassHierarchyTest {
+
+    private static ClassHierarchy hierarchy;
+
+    private static final Subsignature M = Subsignature.get("void m()");
+
+    @BeforeClass
+    public static void buildWorld() {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/classes", "-m", "Dispatch");
+        hierarchy = World.get().getClassHierarchy();
+    }
+
+    private static JClass getClass(String name) {
+        return hierarchy.getClass(name);
+    }
+
+    private static JMethod getM(String className) {
+        return getClass(className).getDeclaredMethod(M);
+    }
+
+    private static Set<JClass> getClasses(String... names) {
+        return Stream.of(names)
+                .map(ClassHierarchyTest::getClass)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testDispatch() {
+        // inherited default method
+        assertEquals(getM("I1"), hierarchy.dispatch(getClass("S"), M));
+        // the most specific default method wins over the one
+        // inherited via the superclass
+        assertEquals(getM("I2"), hierarchy.dispatch(getClass("C"), M));
+        // the maximally specific method is re-abstracted
+        assertNull(hierarchy.dispatch(getClass("D"), M));
+        // class method wins over default methods
+        assertEquals(getM("E"), hierarchy.dispatch(getClass("E"), M));
+        assertEquals(getM("I2"), hierarchy.dispatch(getClass("I2"), M));
+    }
+
+    @Test
+    public void testIsSubclass() {
+        JClass object = hierarchy.getJREClass(ClassNames.OBJECT);
+        assertTrue(hierarchy.isSubclass(getClass("S"), getClass("S")));
+        assertTrue(hierarchy.isSubclass(getClass("S"), getClass("E")));
+        assertTrue(hierarchy.isSubclass(getClass("I1"), getClass("E")));
+        assertTrue(hierarchy.isSubclass(getClass("I1"), getClass("I3")));
+        assertTrue(hierarchy.isSubclass(object, getClass("I1")));
+        assertFalse(hierarchy.isSubclass(getClass("I2"), getClass("S")));
+        assertFalse(hierarchy.isSubclass(getClass("C"), getClass("D")));
+        assertFalse(hierarchy.isSubclass(getClass("E"), getClass("C")));
+    }
+
+    @Test
+    public void testGetAllSubclassesOf() {
+        assertEquals(getClasses("S", "C", "D", "E"),
+                Set.copyOf(hierarchy.getAllSubclassesOf(getClass("S"))));
+        assertEquals(getClasses("I2", "C", "E"),
+                Set.copyOf(hierarchy.getAllSubclassesOf(getClass("I2"))));
+        assertEquals(getClasses("I1", "I2", "I3", "S", "C", "D", "E"),
+                Set.copyOf(hierarchy.getAllSubclassesOf(getClass("I1"))));
+    }
+}
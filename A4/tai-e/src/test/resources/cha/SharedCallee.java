@@ -0,0 +1,23 @@
+public class SharedCallee {
+
+    public static void main(String[] args) {
+        foo();
+        bar();
+        baz();
+    }
+
+    static void foo() {
+        shared();
+    }
+
+    static void bar() {
+        shared();
+    }
+
+    static void baz() {
+        shared();
+    }
+
+    static void shared() {
+    }
+}
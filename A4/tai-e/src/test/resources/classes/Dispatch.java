@@ -0,0 +1,34 @@
+public class Dispatch {
+
+    public static void main(String[] args) {
+        new C().m();
+    }
+}
+
+interface I1 {
+    default void m() {
+    }
+}
+
+interface I2 extends I1 {
+    default void m() {
+    }
+}
+
+interface I3 extends I1 {
+    void m();
+}
+
+class S implements I1 {
+}
+
+class C extends S implements I2 {
+}
+
+abstract class D extends S implements I3 {
+}
+
+class E extends C {
+    public void m() {
+    }
+}
@@ -0,0 +1,7 @@
+public class ArrayCall {
+
+    public static void main(String[] args) {
+        int[] a = new int[args.length];
+        a.hashCode();
+    }
+}
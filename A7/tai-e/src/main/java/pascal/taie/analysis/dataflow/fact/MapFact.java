@@ -54,6 +54,15 @@ public class MapFact<K, V> {
         this.map = Maps.newHybridMap(map);
     }
 
+    /**
+     * Constructs a new MapFact backed by given persistent map.
+     * The map is not copied, and copies of this fact share its trie,
+     * see {@link PersistentMap}.
+     */
+    protected MapFact(PersistentMap<K, V> map) {
+        this.map = map;
+    }
+
     /**
      * @return the value to which the specified key is mapped,
      * or null if this map contains no mapping for the key.
@@ -98,7 +107,9 @@ public class MapFact<K, V> {
      * Creates and returns a copy of this fact.
      */
     public MapFact<K, V> copy() {
-        return new MapFact<>(this.map);
+        return map instanceof PersistentMap<K, V> persistentMap ?
+                new MapFact<>(persistentMap.copy()) :
+                new MapFact<>(this.map);
     }
 
     /**
@@ -108,6 +119,13 @@ public class MapFact<K, V> {
         map.clear();
     }
 
+    /**
+     * @return the number of key-value mappings in this fact.
+     */
+    public int size() {
+        return map.size();
+    }
+
     /**
      * @return a {@link Set} view of the keys contained in this fact.
      */
@@ -0,0 +1,73 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+
+/**
+ * A {@link DataflowResult} for the statements of a single {@link IR},
+ * which stores the data-flow facts in arrays indexed by
+ * {@link Stmt#getIndex()}, instead of hash maps.
+ * <p>
+ * Besides the statements of the IR, the arrays also hold the facts of
+ * the entry and exit nodes of the CFG, which are numbered right after
+ * the statements of the IR by the CFG builder.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+public class StmtDataflowResult<Fact> extends DataflowResult<Stmt, Fact> {
+
+    private final Object[] inFacts;
+
+    private final Object[] outFacts;
+
+    public StmtDataflowResult(IR ir) {
+        // two extra slots for the entry and exit nodes of the CFG
+        int size = ir.getStmts().size() + 2;
+        inFacts = new Object[size];
+        outFacts = new Object[size];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getInFact(Stmt stmt) {
+        return (Fact) inFacts[stmt.getIndex()];
+    }
+
+    @Override
+    public void setInFact(Stmt stmt, Fact fact) {
+        inFacts[stmt.getIndex()] = fact;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Fact getOutFact(Stmt stmt) {
+        return (Fact) outFacts[stmt.getIndex()];
+    }
+
+    @Override
+    public void setOutFact(Stmt stmt, Fact fact) {
+        outFacts[stmt.getIndex()] = fact;
+    }
+}
@@ -47,11 +47,15 @@ import pascal.taie.ir.stmt.*;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
 import polyglot.visit.DataFlow;
 import soot.jimple.spark.geom.geomPA.IWorklist;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 
@@ -65,114 +69,69 @@ public class InterConstantPropagation extends
 
     private final ConstantPropagation cp;
 
-    private final MultiMap<Var, Var> aliasVarMap = Maps.newMultiMap();
+    private PointerAnalysisResult pta;
 
-    private final MultiMap<LoadField, StoreField> aliasStaticFieldMap = Maps.newMultiMap();
+    /**
+     * Map from each store to the loads which may read the stored value.
+     */
+    private final MultiMap<StoreField, LoadField> storeFieldLoads = Maps.newMultiMap();
 
-    private final MultiMap<LoadField, StoreField> aliasInstanceFieldMap = Maps.newMultiMap();
+    // ---------- values of the abstract heap locations ----------
+    // Each location holds the meet of the values stored to it,
+    // which the loads read instead of visiting the aliased stores.
+    private final Map<JField, Value> staticFieldValues = Maps.newMap();
 
-    private final MultiMap<LoadArray, StoreArray> aliasArrayIndexMap = Maps.newMultiMap();
-
-    private final MultiMap<LoadArray, StoreArray> filteredAliasArrayIndexMap = Maps.newMultiMap();
+    private final Map<Pair<Obj, JField>, Value> instanceFieldValues = Maps.newMap();
 
+    private final Map<Obj, ArrayElements> arrayElements = Maps.newMap();
+    // ----------------------------------------------------------
 
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
-        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
+        cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID,
+                "persistent-fact", getOptions().getBooleanOrDefault("persistent-fact", false)));
     }
 
     @Override
     protected void initialize() {
         String ptaId = getOptions().getString("pta");
-        PointerAnalysisResult pta = World.get().getResult(ptaId);
-        Set<Stmt> stmts = icfg.getNodes();
-        // build alias var map
-        Collection<Var> vars = pta.getVars();
-        for (Var var : vars) {
-            Set<Obj> pts = pta.getPointsToSet(var);
-            for (Var other : vars) {
-                //应该和自身建立互为别名的关系
-                Set<Obj> otherPts = pta.getPointsToSet(other);
-                for (Obj obj : otherPts) {
-                    if (pts.contains(obj)) {
-                        aliasVarMap.put(var, other);
-                        break;
-                    }
-                }
-            }
-        }
-
-        // You can do initialization work here
-        Set<LoadField> StaticLoadFieldStmts = stmts.stream()
-                .filter(s -> s instanceof LoadField && ((LoadField) s).isStatic())
-                .map(s -> (LoadField) s)
-                .collect(java.util.stream.Collectors.toSet());
-
-        Set<StoreField> StaticStoreFieldStmts = stmts.stream()
-                .filter(s -> s instanceof StoreField && ((StoreField) s).isStatic())
-                .map(s -> (StoreField) s)
-                .collect(java.util.stream.Collectors.toSet());
-
-        Set<LoadField> InstanceLoadFieldStmts = stmts.stream()
-                .filter(s -> s instanceof LoadField && !((LoadField) s).isStatic())
-                .map(s -> (LoadField) s)
-                .collect(java.util.stream.Collectors.toSet());
-
-        Set<StoreField> InstanceStoreFieldStmts = stmts.stream()
-                .filter(s -> s instanceof StoreField && !((StoreField) s).isStatic())
-                .map(s -> (StoreField) s)
-                .collect(java.util.stream.Collectors.toSet());
-
-        Set<LoadArray> LoadArrayStmts = stmts.stream()
-                .filter(s -> s instanceof LoadArray)
-                .map(s -> (LoadArray) s)
-                .collect(java.util.stream.Collectors.toSet());
-
-        Set<StoreArray> StoreArrayStmts = stmts.stream()
-                .filter(s -> s instanceof StoreArray)
-                .map(s -> (StoreArray) s)
-                .collect(java.util.stream.Collectors.toSet());
-
-        //build alias static field stmt map
-        //其实不需要从整个icfg中获取stmt的集合 可以通过别名变量来匹配
-        for (LoadField staticLoadFieldStmt : StaticLoadFieldStmts) {
-            JField loadField = staticLoadFieldStmt.getFieldRef().resolve();
-            for (StoreField staticStoreFieldStmt : StaticStoreFieldStmts) {
-                JField storeField = staticStoreFieldStmt.getFieldRef().resolve();
-                // JField在程序中是唯一的？
-                if (loadField.equals(storeField)) {
-                    aliasStaticFieldMap.put(staticLoadFieldStmt, staticStoreFieldStmt);
-                }
-            }
-        }
-
-        //build alias instance field stmt map
-        for (LoadField instanceLoadFieldStmt : InstanceLoadFieldStmts) {
-            JField loadField = instanceLoadFieldStmt.getFieldRef().resolve();
-            InstanceFieldAccess loadFieldAccess = (InstanceFieldAccess) instanceLoadFieldStmt.getFieldAccess();
-            Var loadBase = loadFieldAccess.getBase();
-
-            for (StoreField instanceStoreFieldStmt : InstanceStoreFieldStmts) {
-                JField storeField = instanceStoreFieldStmt.getFieldRef().resolve();
-                Var storeBase = ((InstanceFieldAccess) instanceStoreFieldStmt.getFieldAccess()).getBase();
-                // JField在程序中是唯一的？
-                if (aliasVarMap.get(loadBase).contains(storeBase) && loadField.equals(storeField)) {
-                    aliasInstanceFieldMap.put(instanceLoadFieldStmt, instanceStoreFieldStmt);
+        pta = World.get().getResult(ptaId);
+        // Index the field stores by the fields and the objects they may
+        // write, so that the aliased stores of each load are looked up by
+        // the objects pointed to by its base variable, instead of comparing
+        // the points-to sets of all pairs of variables. The dependencies
+        // of the array loads are recorded by ArrayElements on the fly.
+        MultiMap<JField, StoreField> staticStores = Maps.newMultiMap();
+        MultiMap<Pair<Obj, JField>, StoreField> instanceStores = Maps.newMultiMap();
+        List<LoadField> loadFields = new ArrayList<>();
+        for (Stmt stmt : icfg) {
+            if (stmt instanceof StoreField storeField) {
+                JField field = storeField.getFieldRef().resolve();
+                if (storeField.isStatic()) {
+                    staticStores.put(field, storeField);
+                } else {
+                    Var base = ((InstanceFieldAccess) storeField.getFieldAccess()).getBase();
+                    pta.getPointsToSet(base).forEach(obj ->
+                            instanceStores.put(new Pair<>(obj, field), storeField));
                 }
+            } else if (stmt instanceof LoadField loadField) {
+                loadFields.add(loadField);
             }
         }
-
-        //build alias array index stmt map
-        for (LoadArray loadArrayStmt : LoadArrayStmts) {
-            Var loadBase = loadArrayStmt.getArrayAccess().getBase();
-            for (StoreArray storeArrayStmt : StoreArrayStmts) {
-                Var storeBase = storeArrayStmt.getArrayAccess().getBase();
-                if (aliasVarMap.get(loadBase).contains(storeBase)) {
-                    aliasArrayIndexMap.put(loadArrayStmt, storeArrayStmt);
+        // derive the aliased loads of the stores from the indexes
+        for (LoadField loadField : loadFields) {
+            JField field = loadField.getFieldRef().resolve();
+            if (loadField.isStatic()) {
+                staticStores.get(field).forEach(store ->
+                        storeFieldLoads.put(store, loadField));
+            } else {
+                Var base = ((InstanceFieldAccess) loadField.getFieldAccess()).getBase();
+                for (Obj obj : pta.getPointsToSet(base)) {
+                    instanceStores.get(new Pair<>(obj, field)).forEach(store ->
+                            storeFieldLoads.put(store, loadField));
                 }
             }
         }
-
     }
 
     @Override
@@ -215,69 +174,32 @@ public class InterConstantPropagation extends
 
         //alias-aware transfer
         if (stmt instanceof LoadField loadField) {
-//            if (ConstantPropagation.canHoldInt(loadField.getLValue())) {
-                if (loadField.isStatic()) {
-                    changed |= transferLoadField(loadField, in, out, aliasStaticFieldMap);
-                }
-                else {
-                    changed |= transferLoadField(loadField, in, out, aliasInstanceFieldMap);
-                }
-//            }
+            Value value = loadFieldValue(loadField);
+            if (value != null) {
+                changed |= out.update(loadField.getLValue(), value);
+            }
             return changed;
         }
         else if (stmt instanceof LoadArray loadArray) {
-            Var loadVar = loadArray.getLValue();
-
-//            if (ConstantPropagation.canHoldInt(loadVar)) {
-                Value newValue = Value.getUndef();
-
-                //refine alias arrayIndexMap
-                filterAliasArray(loadArray, aliasArrayIndexMap, filteredAliasArrayIndexMap, in);
-
-                if (filteredAliasArrayIndexMap.isEmpty()) return changed;
-                else {
-                    for (StoreArray aliasStoreArrayStmt : filteredAliasArrayIndexMap.get(loadArray)) {
-                        Var storeVar = aliasStoreArrayStmt.getRValue();
-                        if (ConstantPropagation.canHoldInt(storeVar)) {
-                            Value storeValue = solver.getInFact(aliasStoreArrayStmt).get(storeVar);
-                            newValue = cp.meetValue(storeValue, newValue);
-                        }
-                    }
-                    changed |= out.update(loadVar, newValue);
-                    return changed;
-                }
-//            }
-
-//            return changed;
+            Value index = in.get(loadArray.getArrayAccess().getIndex());
+            changed |= out.update(loadArray.getLValue(),
+                    loadArrayValue(loadArray, index));
+            return changed;
         }
         else if(stmt instanceof StoreField storeField) {
-            if (ConstantPropagation.canHoldInt(storeField.getRValue())) {
-                if (storeField.isStatic()) {
-                    for (LoadField loadField : aliasStaticFieldMap.keySet()) {
-                        if (aliasStaticFieldMap.get(loadField).contains(storeField)) {
-                            solver.add(loadField);
-                        }
-                    }
-                }
-
-                else {
-                    for (LoadField loadField : aliasInstanceFieldMap.keySet()) {
-                        if (aliasInstanceFieldMap.get(loadField).contains(storeField)) {
-                            solver.add(loadField);
-                        }
-                    }
-                }
+            Var storeVar = storeField.getRValue();
+            if (ConstantPropagation.canHoldInt(storeVar)
+                    && storeFieldValue(storeField, in.get(storeVar))) {
+                storeFieldLoads.get(storeField).forEach(solver::add);
             }
             return changed;
         }
         else if (stmt instanceof StoreArray storeArray) {
-            if (ConstantPropagation.canHoldInt(storeArray.getRValue())) {
-                for (LoadArray loadArray : aliasArrayIndexMap.keySet()) {
-                    if (aliasArrayIndexMap.get(loadArray).contains(storeArray)) {
-                        solver.add(loadArray);
-                    }
-                }
-
+            Var storeVar = storeArray.getRValue();
+            if (ConstantPropagation.canHoldInt(storeVar)) {
+                Value index = in.get(storeArray.getArrayAccess().getIndex());
+                storeArrayValue(storeArray, index, in.get(storeVar))
+                        .forEach(solver::add);
             }
             return changed;
         }
@@ -360,42 +282,156 @@ public class InterConstantPropagation extends
         return fact;
     }
 
-    protected boolean transferLoadField(LoadField loadField, CPFact in, CPFact out, MultiMap<LoadField, StoreField> aliasStmtMap) {
-        Var loadVar = loadField.getLValue();
-        Value newValue = Value.getUndef();
-        boolean changed = false;
-        Collection<StoreField> aliasStoreFieldStmts = aliasStmtMap.get(loadField);
-        if (aliasStoreFieldStmts.isEmpty()) return false;
-        else {
-            for (StoreField aliasStoreFieldStmt : aliasStoreFieldStmts) {
-                Var storeVar = aliasStoreFieldStmt.getRValue();
-                //store stmt is not int -> ignored
-                if (ConstantPropagation.canHoldInt(storeVar)) {
-                    Value storeValue = solver.getInFact(aliasStoreFieldStmt).get(storeVar);
-                    newValue = cp.meetValue(storeValue, newValue);
-                }
+    /**
+     * @return the meet of the values of the field locations which may be
+     * read by given load, or {@code null} if none of them has been stored.
+     */
+    private Value loadFieldValue(LoadField loadField) {
+        JField field = loadField.getFieldRef().resolve();
+        if (loadField.isStatic()) {
+            return staticFieldValues.get(field);
+        }
+        Var base = ((InstanceFieldAccess) loadField.getFieldAccess()).getBase();
+        Value value = null;
+        for (Obj obj : pta.getPointsToSet(base)) {
+            Value objValue = instanceFieldValues.get(new Pair<>(obj, field));
+            if (objValue != null) {
+                value = value == null ? objValue : cp.meetValue(value, objValue);
             }
-            changed = out.update(loadVar, newValue);
         }
-        return changed;
+        return value;
     }
 
-    protected void filterAliasArray(LoadArray loadArray, MultiMap<LoadArray, StoreArray> aliasStmtMap, MultiMap<LoadArray, StoreArray> FilteredAliasStmtsMap, CPFact in) {
-        Collection<StoreArray> storeArrays = aliasStmtMap.get(loadArray);
-        Var loadIndex = loadArray.getArrayAccess().getIndex();
-        Value loadIndexV = in.get(loadIndex);
+    /**
+     * @return the meet of the values of the array elements which may be
+     * read by given load with given index value.
+     */
+    private Value loadArrayValue(LoadArray loadArray, Value index) {
+        Var base = loadArray.getArrayAccess().getBase();
+        Value value = Value.getUndef();
+        for (Obj obj : pta.getPointsToSet(base)) {
+            value = cp.meetValue(value, arrayElements
+                    .computeIfAbsent(obj, o -> new ArrayElements())
+                    .load(loadArray, index));
+        }
+        return value;
+    }
+
+    /**
+     * Meets given value into the field locations written by given store.
+     *
+     * @return true if any of the locations changed, otherwise false.
+     */
+    private boolean storeFieldValue(StoreField storeField, Value value) {
+        JField field = storeField.getFieldRef().resolve();
+        if (storeField.isStatic()) {
+            return meetLocation(staticFieldValues, field, value);
+        }
+        Var base = ((InstanceFieldAccess) storeField.getFieldAccess()).getBase();
+        boolean changed = false;
+        for (Obj obj : pta.getPointsToSet(base)) {
+            changed |= meetLocation(instanceFieldValues, new Pair<>(obj, field), value);
+        }
+        return changed;
+    }
 
-        for (StoreArray storeArray : storeArrays) {
-            Var storeIndex = storeArray.getArrayAccess().getIndex();
-            Value storeIndexV = solver.getInFact(storeArray).get(storeIndex);
-            if (isAliasIndex(loadIndexV, storeIndexV)) FilteredAliasStmtsMap.put(loadArray, storeArray);
+    /**
+     * Meets given value into the array elements written by given store
+     * with given index value.
+     *
+     * @return the loads which may read the changed elements.
+     */
+    private Set<LoadArray> storeArrayValue(StoreArray storeArray, Value index, Value value) {
+        Var base = storeArray.getArrayAccess().getBase();
+        Set<LoadArray> affected = Sets.newHybridSet();
+        for (Obj obj : pta.getPointsToSet(base)) {
+            arrayElements.computeIfAbsent(obj, o -> new ArrayElements())
+                    .store(index, value, affected);
         }
+        return affected;
     }
 
-    private boolean isAliasIndex(Value loadIndexV, Value storeIndexV) {
-        if (loadIndexV.isUndef() || storeIndexV.isUndef()) return false;
-        else if (loadIndexV.isNAC() || storeIndexV.isNAC()) return true;
-        else return loadIndexV.equals(storeIndexV);
+    /**
+     * Meets given value into the location in given value table.
+     *
+     * @return true if the location is new or its value changed,
+     * otherwise false.
+     */
+    private <L> boolean meetLocation(Map<L, Value> values, L location, Value value) {
+        Value oldValue = values.get(location);
+        Value newValue = oldValue == null ? value : cp.meetValue(oldValue, value);
+        if (newValue.equals(oldValue)) {
+            return false;
+        }
+        values.put(location, newValue);
+        return true;
     }
 
+    /**
+     * Values of the elements of an abstract array, bucketed by the values
+     * of the indexes. A load with a constant index reads the bucket of
+     * the constant and the bucket of NAC indexes, and a load with a NAC
+     * index reads all elements. Stores and loads with undefined indexes
+     * do not access any element. The loads are also kept in the buckets
+     * they read, so that a store only affects the loads of the buckets
+     * it changes.
+     */
+    private class ArrayElements {
+
+        private final Map<Integer, Value> constantBuckets = Maps.newMap();
+
+        private Value nacBucket = Value.getUndef();
+
+        /**
+         * Meet of the values of all elements.
+         */
+        private Value all = Value.getUndef();
+
+        private final MultiMap<Integer, LoadArray> constantLoads = Maps.newMultiMap();
+
+        private final Set<LoadArray> nacLoads = Sets.newHybridSet();
+
+        private Value load(LoadArray loadArray, Value index) {
+            if (index.isConstant()) {
+                int i = index.getConstant();
+                constantLoads.put(i, loadArray);
+                return cp.meetValue(nacBucket,
+                        constantBuckets.getOrDefault(i, Value.getUndef()));
+            } else if (index.isNAC()) {
+                nacLoads.add(loadArray);
+                return all;
+            } else {
+                return Value.getUndef();
+            }
+        }
+
+        /**
+         * Meets given value into the elements at given index value,
+         * and adds the loads which may read the changed elements
+         * to {@code affected}.
+         */
+        private void store(Value index, Value value, Set<LoadArray> affected) {
+            if (index.isConstant()) {
+                int i = index.getConstant();
+                Value oldValue = constantBuckets.getOrDefault(i, Value.getUndef());
+                Value newValue = cp.meetValue(oldValue, value);
+                if (newValue.equals(oldValue)) {
+                    return;
+                }
+                constantBuckets.put(i, newValue);
+                affected.addAll(constantLoads.get(i));
+            } else if (index.isNAC()) {
+                Value newValue = cp.meetValue(nacBucket, value);
+                if (newValue.equals(nacBucket)) {
+                    return;
+                }
+                nacBucket = newValue;
+                affected.addAll(constantLoads.values());
+            } else {
+                return;
+            }
+            all = cp.meetValue(all, value);
+            affected.addAll(nacLoads);
+        }
+    }
 }
@@ -24,9 +24,11 @@ package pascal.taie.analysis.dataflow.inter;
 
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.solver.SolverStats;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.util.collection.SetQueue;
 
@@ -50,16 +52,45 @@ class InterSolver<Method, Node, Fact> {
 
     private Queue<Node> workList;
 
+    /**
+     * Whether to poll the nodes by {@link InterWorkList},
+     * or in first-in-first-out order.
+     */
+    private final boolean ordered;
+
+    /**
+     * @param workList the work-list mode, which is either {@code "fifo"}
+     *                 (also used when {@code workList} is {@code null}), or
+     *                 {@code "scc"}, i.e., polling the nodes by the order
+     *                 given by {@link InterWorkList}
+     */
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
-                ICFG<Method, Node> icfg) {
+                ICFG<Method, Node> icfg, String workList) {
         this.analysis = analysis;
         this.icfg = icfg;
+        this.ordered = isOrdered(workList);
+    }
+
+    private static boolean isOrdered(String workList) {
+        if (workList == null) {
+            return false;
+        }
+        return switch (workList) {
+            case "fifo" -> false;
+            case "scc" -> true;
+            default -> throw new ConfigException(
+                    "Unknown work-list mode: " + workList);
+        };
     }
 
     DataflowResult<Node, Fact> solve() {
+        long start = System.nanoTime();
         result = new DataflowResult<>();
         initialize();
         doSolve();
+        SolverStats stats = result.getStats();
+        stats.addWallTime(System.nanoTime() - start);
+        icfg.forEach(node -> stats.countFactSize(result.getOutFact(node)));
         return result;
     }
 
@@ -79,23 +110,31 @@ class InterSolver<Method, Node, Fact> {
 
     private void doSolve() {
         // TODO - finish me
-        workList = new ArrayDeque<>();
+        SolverStats stats = result.getStats();
+        workList = ordered ?
+                new InterWorkList<>(icfg, analysis.isForward()) :
+                new ArrayDeque<>();
         workList.addAll(icfg.getNodes());
+        stats.updateWorkListSize(workList.size());
 
         while (!workList.isEmpty()) {
             Node node = workList.poll();
+            stats.countNodeVisit();
             Fact in = analysis.newInitialFact();
             for (ICFGEdge<Node> inEdge : icfg.getInEdgesOf(node)) {
                 Node pred = inEdge.getSource();
                 Fact predOut = result.getOutFact(pred);
                 Fact edgeOut = analysis.transferEdge(inEdge, predOut);
+                stats.countMeet();
                 analysis.meetInto(edgeOut, in);
             }
             //问题出在worklist遍历到Load语句的时候 部分store语句的上下文还没有更新 因此不只是get对应的result
             //处理store语句时 把相关联的load语句添加到worklist中 保证load语句的结果考虑到了最新的store更新
             result.setInFact(node, in);
+            stats.countTransfer();
             if (analysis.transferNode(node, in, result.getOutFact(node))) {
                 workList.addAll(icfg.getSuccsOf(node));
+                stats.updateWorkListSize(workList.size());
             }
         }
     }
@@ -106,6 +145,7 @@ class InterSolver<Method, Node, Fact> {
 
     public void add(Node node) {
         workList.add(node);
+        result.getStats().updateWorkListSize(workList.size());
     }
 
 }
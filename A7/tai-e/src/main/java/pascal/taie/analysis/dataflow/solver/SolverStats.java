@@ -0,0 +1,155 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapFact;
+
+import java.util.Arrays;
+
+/**
+ * Statistics of a run of a data-flow solver, which tell how hard
+ * the solver works to reach the fixed point. Each {@link DataflowResult}
+ * carries the statistics of the run which produces it, thus the statistics
+ * of a method (or a whole program, for inter-procedural analyses) can be
+ * found along with the result of each analysis.
+ */
+public class SolverStats {
+
+    /**
+     * Number of buckets of the fact size histogram, enough for any int size.
+     */
+    private static final int BUCKETS = Integer.SIZE + 1;
+
+    private long nodeVisits;
+
+    private long transferCalls;
+
+    private long meetCalls;
+
+    private int maxWorkListSize;
+
+    private long wallTime;
+
+    /**
+     * Histogram of the sizes of the resulting facts. Bucket 0 counts
+     * the empty facts, and bucket i (i > 0) counts the facts whose sizes
+     * are in [2^(i-1), 2^i).
+     */
+    private final long[] factSizes = new long[BUCKETS];
+
+    public void countNodeVisit() {
+        ++nodeVisits;
+    }
+
+    public void countTransfer() {
+        ++transferCalls;
+    }
+
+    public void countMeet() {
+        ++meetCalls;
+    }
+
+    /**
+     * Updates the high-water mark of the work-list size.
+     */
+    public void updateWorkListSize(int size) {
+        maxWorkListSize = Math.max(maxWorkListSize, size);
+    }
+
+    /**
+     * Adds elapsed time of the solver, in nanoseconds.
+     */
+    public void addWallTime(long nanos) {
+        wallTime += nanos;
+    }
+
+    /**
+     * Counts the size of a resulting fact in the histogram.
+     * Facts whose sizes are unknown (i.e., not {@link MapFact})
+     * are ignored.
+     */
+    public void countFactSize(Object fact) {
+        if (fact instanceof MapFact<?, ?> mapFact) {
+            ++factSizes[Integer.SIZE - Integer.numberOfLeadingZeros(mapFact.size())];
+        }
+    }
+
+    /**
+     * Adds the statistics of another run to this statistics,
+     * e.g., to summarize the runs of an analysis on all methods.
+     */
+    public void add(SolverStats other) {
+        nodeVisits += other.nodeVisits;
+        transferCalls += other.transferCalls;
+        meetCalls += other.meetCalls;
+        maxWorkListSize = Math.max(maxWorkListSize, other.maxWorkListSize);
+        wallTime += other.wallTime;
+        for (int i = 0; i < BUCKETS; ++i) {
+            factSizes[i] += other.factSizes[i];
+        }
+    }
+
+    public long getNodeVisits() {
+        return nodeVisits;
+    }
+
+    public long getTransferCalls() {
+        return transferCalls;
+    }
+
+    public long getMeetCalls() {
+        return meetCalls;
+    }
+
+    public int getMaxWorkListSize() {
+        return maxWorkListSize;
+    }
+
+    /**
+     * @return elapsed time of the solver, in nanoseconds.
+     */
+    public long getWallTime() {
+        return wallTime;
+    }
+
+    /**
+     * @return the fact size histogram, see {@link #factSizes}.
+     * Trailing empty buckets are trimmed.
+     */
+    public long[] getFactSizeHistogram() {
+        int length = BUCKETS;
+        while (length > 0 && factSizes[length - 1] == 0) {
+            --length;
+        }
+        return Arrays.copyOf(factSizes, length);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("visits=%d, transfers=%d, meets=%d," +
+                        " max-worklist=%d, time=%.3fms, fact-sizes=%s",
+                nodeVisits, transferCalls, meetCalls, maxWorkListSize,
+                wallTime / 1e6, Arrays.toString(getFactSizeHistogram()));
+    }
+}